@@ -0,0 +1,82 @@
+package Ecommerce.Ecommerce.cache;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring record of requests made with an {@code Idempotency-Key}, scoped per user.
+ * The first request for a key runs the action; repeats within the TTL, including ones that
+ * arrive while the first is still running, wait for and return that same result.
+ * Failed attempts are forgotten so the client can retry them.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(@Value("${idempotency.max-size:100000}") long maxSize,
+                            @Value("${idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope}/{@code key}. {@code fingerprint} identifies the request
+     * body; reusing a key for a different body is rejected instead of returning an unrelated result.
+     */
+    public Response execute(String scope, String key, Object fingerprint, Supplier<Response> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidCredentialsException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = scope + ":" + key;
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+
+        // atomic claim: exactly one thread per key gets to run the action
+        Entry existing = cache.asMap().putIfAbsent(cacheKey, entry);
+        if (existing != null) {
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                throw new InvalidCredentialsException("Idempotency-Key was already used for a different request");
+            }
+            return await(existing.result());
+        }
+
+        try {
+            Response response = action.get();
+            entry.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            cache.asMap().remove(cacheKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            // surface the original failure so it maps to the same HTTP status
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<Response> result) {
+    }
+}
@@ -0,0 +1,47 @@
+package Ecommerce.Ecommerce.cache;
+
+import Ecommerce.Ecommerce.dto.CacheStatsDto;
+import Ecommerce.Ecommerce.dto.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of product details keyed by product id.
+ * Entries expire after a fixed TTL and are evicted explicitly whenever a product changes.
+ * Every read returns a copy, so a caller that edits its DTO cannot change what others see.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, ProductDto> cache;
+
+    public ProductCache(@Value("${product.cache.max-size:10000}") long maxSize,
+                        @Value("${product.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    /** Returns the cached product, loading it with {@code loader} on a miss. Loader exceptions are not cached. */
+    public ProductDto get(Long productId, Function<Long, ProductDto> loader) {
+        return cache.get(productId, loader).toBuilder().build();
+    }
+
+    public void evict(Long productId) {
+        cache.invalidate(productId);
+    }
+
+    public CacheStatsDto stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+}
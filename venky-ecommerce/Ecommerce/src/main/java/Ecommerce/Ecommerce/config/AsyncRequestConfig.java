@@ -0,0 +1,22 @@
+package Ecommerce.Ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Timeout for async responses that do not set their own. Streamed order exports can run for
+ * minutes, well past Tomcat's 30 second default; the order event stream sets its own timeout.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    @Value("${web.async.timeout-ms:3600000}")
+    private long timeoutMillis;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeoutMillis);
+    }
+}
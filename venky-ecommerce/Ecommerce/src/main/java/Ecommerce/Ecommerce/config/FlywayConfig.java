@@ -0,0 +1,20 @@
+package Ecommerce.Ecommerce.config;
+
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schema changes are applied by Flyway from {@code db/migration}. V1 is the schema that
+ * {@code ddl-auto=update} created for the original entities, so databases created that way
+ * are baselined at version 1 and receive every later change from V2 on.
+ */
+@Configuration
+public class FlywayConfig implements FlywayConfigurationCustomizer {
+
+    @Override
+    public void customize(FluentConfiguration configuration) {
+        configuration.baselineOnMigrate(true)
+                .baselineVersion("1");
+    }
+}
@@ -0,0 +1,28 @@
+package Ecommerce.Ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Turns on JDBC batching for inserts and updates. Entities use pooled sequence ids
+ * (table-backed on MySQL) so Hibernate knows ids before the insert and can group rows;
+ * pair this with rewriteBatchedStatements=true on the MySQL JDBC URL so the driver
+ * collapses each batch into multi-row statements.
+ */
+@Configuration
+public class JpaBatchingConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${jpa.batch-size:50}")
+    private int batchSize;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.jdbc.batch_size", batchSize);
+        hibernateProperties.put("hibernate.order_inserts", true);
+        hibernateProperties.put("hibernate.order_updates", true);
+        hibernateProperties.put("hibernate.jdbc.batch_versioned_data", true);
+    }
+}
@@ -0,0 +1,14 @@
+package Ecommerce.Ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the background jobs (outbox relay, roll-ups, counter flushes, rendition sweep).
+ * Kept off the application class so test slices, which skip scanned configuration,
+ * drive those jobs themselves instead of racing a scheduler that fires on startup.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,100 @@
+package Ecommerce.Ecommerce.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Refuses to start when an index that a hot query depends on is missing, instead of
+ * letting those queries silently fall back to table scans. Indexes are matched by their
+ * leading columns, not by name, so equivalent indexes created by hand also count.
+ * Disable with {@code schema.verify-indexes=false}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier implements ApplicationRunner {
+
+    /** Table and leading index columns, kept in step with db/migration. */
+    private static final List<ExpectedIndex> EXPECTED_INDEXES = List.of(
+            new ExpectedIndex("products", List.of("category_id")),
+            new ExpectedIndex("order_items", List.of("status", "created_at", "id")),
+            new ExpectedIndex("order_items", List.of("created_at", "id")),
+            new ExpectedIndex("order_items", List.of("user_id", "id")),
+            new ExpectedIndex("addresses", List.of("user_id")),
+            new ExpectedIndex("order_events", List.of("published_at", "id")),
+            new ExpectedIndex("order_events", List.of("rolled_up_at", "id")),
+            new ExpectedIndex("order_events", List.of("order_id", "order_item_id", "id")),
+            new ExpectedIndex("sales_rollups", List.of("product_id", "granularity", "bucket_start")),
+            new ExpectedIndex("users", List.of("email")),
+            new ExpectedIndex("categories", List.of("name")));
+
+    private final DataSource dataSource;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        List<ExpectedIndex> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (ExpectedIndex expected : EXPECTED_INDEXES) {
+                if (!hasIndex(connection, metaData, expected)) {
+                    missing.add(expected);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes " + missing
+                    + "; run the Flyway migrations or set schema.verify-indexes=false");
+        }
+        log.info("Verified {} schema indexes", EXPECTED_INDEXES.size());
+    }
+
+    private static boolean hasIndex(Connection connection, DatabaseMetaData metaData, ExpectedIndex expected) throws SQLException {
+        String table = metaData.storesUpperCaseIdentifiers()
+                ? expected.table().toUpperCase(Locale.ROOT)
+                : expected.table();
+
+        // index name -> columns by position
+        Map<String, TreeMap<Short, String>> indexes = new TreeMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue;
+                }
+                indexes.computeIfAbsent(indexName, name -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+        return indexes.values().stream()
+                .map(columns -> List.copyOf(columns.values()))
+                .anyMatch(columns -> columns.size() >= expected.columns().size()
+                        && columns.subList(0, expected.columns().size()).equals(expected.columns()));
+    }
+
+    private record ExpectedIndex(String table, List<String> columns) {
+        @Override
+        public String toString() {
+            return table + "(" + String.join(", ", columns) + ")";
+        }
+    }
+}
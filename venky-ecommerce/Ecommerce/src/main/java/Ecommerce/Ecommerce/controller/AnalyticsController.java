@@ -0,0 +1,48 @@
+package Ecommerce.Ecommerce.controller;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.service.SalesRollupBackfill;
+import Ecommerce.Ecommerce.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final SalesRollupService salesRollupService;
+    private final SalesRollupBackfill salesRollupBackfill;
+
+
+    @GetMapping("/sales")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getSales(
+            // "hour" or "day"
+            @RequestParam(defaultValue = "day") String granularity,
+            // Defaults to the last 30 days (day) or 48 hours (hour)
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            // "category" (one series per category) or "total"; ignored when productId is given
+            @RequestParam(defaultValue = "category") String groupBy,
+            @RequestParam(required = false) Long productId){
+        return ResponseEntity.ok(salesRollupService.getSales(granularity, from, to, groupBy, productId));
+    }
+
+    @PostMapping("/backfill")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> startBackfill(){
+        return ResponseEntity.ok(salesRollupBackfill.start());
+    }
+
+    @GetMapping("/backfill")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getBackfillStatus(){
+        return ResponseEntity.ok(salesRollupBackfill.getStatus());
+    }
+}
@@ -0,0 +1,35 @@
+package Ecommerce.Ecommerce.controller;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.service.FlashSaleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/flash-sale")
+@RequiredArgsConstructor
+public class FlashSaleController {
+
+    private final FlashSaleService flashSaleService;
+
+
+    @PostMapping("/start/{productId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> startSale(@PathVariable Long productId){
+        return ResponseEntity.ok(flashSaleService.startSale(productId));
+    }
+
+    @PostMapping("/end/{productId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> endSale(@PathVariable Long productId){
+        return ResponseEntity.ok(flashSaleService.endSale(productId));
+    }
+
+    @GetMapping("/active")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getActiveSales(){
+        return ResponseEntity.ok(flashSaleService.getActiveSales());
+    }
+}
@@ -1,18 +1,27 @@
 package Ecommerce.Ecommerce.controller;
 
+import Ecommerce.Ecommerce.cache.IdempotencyStore;
+import Ecommerce.Ecommerce.dto.BulkStatusUpdateRequest;
 import Ecommerce.Ecommerce.dto.OrderRequest;
 import Ecommerce.Ecommerce.dto.Response;
 import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.event.OrderEventBroadcaster;
+import Ecommerce.Ecommerce.service.OrderItemExporter;
 import Ecommerce.Ecommerce.service.interf.OrderItemService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 
 @RestController
@@ -21,10 +30,40 @@ import java.time.LocalDateTime;
 public class OrderItemController {
 
     private final OrderItemService orderItemService;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final OrderItemExporter orderItemExporter;
 
     @PostMapping("/create")
-    public ResponseEntity<Response> placeOrder(@RequestBody OrderRequest orderRequest){
-        return ResponseEntity.ok(orderItemService.placeOrder(orderRequest));
+    public ResponseEntity<Response> placeOrder(@RequestBody OrderRequest orderRequest,
+                                               // Optional client-generated key; retries with the same key return the first result
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                               Principal principal){
+        // /order/** is not behind authentication, so anonymous calls go straight through and fail as before
+        if (idempotencyKey == null || idempotencyKey.isBlank() || principal == null) {
+            return ResponseEntity.ok(orderItemService.placeOrder(orderRequest));
+        }
+        // keys are scoped to the caller, so two users can never collide on the same key
+        return ResponseEntity.ok(idempotencyStore.execute(principal.getName(), idempotencyKey, orderRequest.getItems(),
+                () -> orderItemService.placeOrder(orderRequest)));
+    }
+
+    @GetMapping("/status-counts")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getOrderStatusCounts(){
+        return ResponseEntity.ok(orderItemService.getOrderStatusCounts());
+    }
+
+    @GetMapping("/pipeline-stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getOrderPipelineStats(){
+        return ResponseEntity.ok(orderItemService.getOrderPipelineStats());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public SseEmitter streamOrderEvents(){
+        return orderEventBroadcaster.connect();
     }
 
     @PutMapping("/update-item-status/{orderItemId}")
@@ -34,6 +73,13 @@ public class OrderItemController {
     }
 
 
+    @PutMapping("/update-item-status")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> bulkUpdateOrderItemStatus(@RequestBody BulkStatusUpdateRequest request){
+        return ResponseEntity.ok(orderItemService.bulkUpdateOrderItemStatus(request));
+    }
+
+
     @GetMapping("/filter")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Response> filterOrderItems(
@@ -53,18 +99,55 @@ public class OrderItemController {
             @RequestParam(defaultValue = "0") int page,
 
             // Number of records per page (default = 1000)
-            @RequestParam(defaultValue = "1000") int size
+            @RequestParam(defaultValue = "1000") int size,
+            // Paging mode: "page" (offset + total count), "slice" (offset, no count) or "seek" (cursor on createdAt/id)
+            @RequestParam(defaultValue = "page") String mode,
+            // Cursor returned as nextCursor by the previous "seek" page; omit for the first page
+            @RequestParam(required = false) String after
     ) {
+        // Convert status string into OrderStatus enum if not null, else keep null
+        OrderStatus orderStatus = status != null ? OrderStatus.valueOf(status.toUpperCase()) : null;
+
+        // Seek mode ignores page: each request continues from the previous page's last row
+        if ("seek".equalsIgnoreCase(mode)) {
+            return ResponseEntity.ok(orderItemService.filterOrderItemsAfter(orderStatus, startDate, endDate, itemId, after, size));
+        }
+
         // Create Pageable object with page, size, and sort order (descending by "id")
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
 
-        // Convert status string into OrderStatus enum if not null, else keep null
-        OrderStatus orderStatus = status != null ? OrderStatus.valueOf(status.toUpperCase()) : null;
+        // Slice mode skips the COUNT(*) and only reports whether a next page exists
+        if ("slice".equalsIgnoreCase(mode)) {
+            return ResponseEntity.ok(orderItemService.filterOrderItemsSlice(orderStatus, startDate, endDate, itemId, pageable));
+        }
 
         // Call the service method to filter order items and return the result wrapped in ResponseEntity (HTTP 200 OK)
         return ResponseEntity.ok(orderItemService.filterOrderItems(orderStatus, startDate, endDate, itemId, pageable));
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrderItems(
+            // Same filters as /filter; every matching item is written, oldest first
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long itemId,
+            // "csv" or "ndjson"
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        OrderStatus orderStatus = status != null ? OrderStatus.valueOf(status.toUpperCase()) : null;
+        OrderItemExporter.Format exportFormat = OrderItemExporter.parseFormat(format);
+
+        // rows are written as they are read, after this method returns, so nothing is held in memory
+        StreamingResponseBody body = out ->
+                orderItemExporter.export(orderStatus, startDate, endDate, itemId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"order-items." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
 
 
 
@@ -26,12 +26,13 @@ public class ProductController {
             @RequestParam MultipartFile image,
             @RequestParam String name,
             @RequestParam String description,
-            @RequestParam BigDecimal price
+            @RequestParam BigDecimal price,
+            @RequestParam(required = false) Integer stock
     ){
         if (categoryId == null || image.isEmpty() || name.isEmpty() || description.isEmpty() || price == null){
             throw new InvalidCredentialsException("All Fields are Required");
         }
-        return ResponseEntity.ok(productService.createProduct(categoryId, image, name, description, price));
+        return ResponseEntity.ok(productService.createProduct(categoryId, image, name, description, price, stock));
     }
 
 
@@ -43,9 +44,10 @@ public class ProductController {
             @RequestParam(required = false)  MultipartFile image,
             @RequestParam(required = false)  String name,
             @RequestParam(required = false)  String description,
-            @RequestParam(required = false)  BigDecimal price
+            @RequestParam(required = false)  BigDecimal price,
+            @RequestParam(required = false)  Integer stock
     ){
-        return ResponseEntity.ok(productService.updateProduct(productId, categoryId, image, name, description, price));
+        return ResponseEntity.ok(productService.updateProduct(productId, categoryId, image, name, description, price, stock));
     }
 
     @DeleteMapping("/delete/{productId}")
@@ -66,6 +68,14 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
+    @GetMapping("/list")
+    public ResponseEntity<Response> getProductsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int limit
+    ){
+        return ResponseEntity.ok(productService.getProductsPage(after, limit));
+    }
+
 
     @GetMapping("/get-by-category-id/{categoryId}")
     public ResponseEntity<Response> getProductsByCategory(@PathVariable Long categoryId){
@@ -77,5 +87,11 @@ public class ProductController {
         return ResponseEntity.ok(productService.searchProduct(searchValue));
     }
 
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getProductCacheStats(){
+        return ResponseEntity.ok(productService.getProductCacheStats());
+    }
+
 }
 
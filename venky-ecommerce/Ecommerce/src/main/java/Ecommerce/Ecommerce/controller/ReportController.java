@@ -0,0 +1,36 @@
+package Ecommerce.Ecommerce.controller;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.report.ReportEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final ReportEngine reportEngine;
+
+
+    @PostMapping("/month-end")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> startMonthEndReport(){
+        return ResponseEntity.ok(reportEngine.startMonthEndReport());
+    }
+
+    // Progress while running; the report itself once completed
+    @GetMapping("/{reportId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getReport(@PathVariable String reportId){
+        return ResponseEntity.ok(reportEngine.getReport(reportId));
+    }
+
+    @DeleteMapping("/{reportId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> cancelReport(@PathVariable String reportId){
+        return ResponseEntity.ok(reportEngine.cancelReport(reportId));
+    }
+}
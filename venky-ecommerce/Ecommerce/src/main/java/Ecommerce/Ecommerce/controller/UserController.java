@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -27,4 +28,10 @@ public class UserController {
     public ResponseEntity<Response> getUserInfoAndOrderHistory(){
         return ResponseEntity.ok(userService.getUserInfoAndOrderHistory());
     }
+
+    @GetMapping("/order-history")
+    public ResponseEntity<Response> getOrderHistory(@RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "10") int limit){
+        return ResponseEntity.ok(userService.getOrderHistory(after, limit));
+    }
 }
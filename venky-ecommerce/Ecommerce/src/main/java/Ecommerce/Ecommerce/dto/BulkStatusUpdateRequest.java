@@ -0,0 +1,24 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Target status plus the order items to move to it: either explicit ids, or the same
+ * filters as {@code GET /order/filter} (ignored when ids are given).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkStatusUpdateRequest {
+
+    private String status;
+    private List<Long> orderItemIds;
+
+    private String filterStatus;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long itemId;
+}
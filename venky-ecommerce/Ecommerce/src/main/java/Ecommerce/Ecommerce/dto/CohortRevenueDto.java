@@ -0,0 +1,11 @@
+package Ecommerce.Ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Revenue of the customers who signed up in {@code cohort} (yyyy-MM), by months since signing up:
+ * index 0 is the signup month itself.
+ */
+public record CohortRevenueDto(String cohort, long orderItems, List<BigDecimal> revenueByMonth) {
+}
@@ -0,0 +1,23 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+public class FlashSaleDto {
+
+    private Long productId;
+    private int initialStock;
+    // units left in the in-memory counter
+    private long available;
+    // sold (or returned, if negative) units not yet written back to products.stock
+    private long pendingWriteBack;
+    private LocalDateTime startedAt;
+}
@@ -0,0 +1,32 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MonthEndReportDto {
+
+    private long orders;
+    private long orderItems;
+    private long units;
+    // everything ordered, including items later cancelled or returned
+    private BigDecimal placedValue;
+    // items that were not cancelled or returned
+    private BigDecimal revenue;
+
+    private double averageItemsPerOrder;
+    private double averageUnitsPerOrder;
+    private BigDecimal averageOrderValue;
+    // orders with 1, 2, ... 9 items; the last entry counts orders with 10 or more
+    private List<Long> itemsPerOrderHistogram;
+
+    private List<CohortRevenueDto> cohorts;
+
+    // dwell times only cover items whose whole status history is still in the order event outbox
+    private long itemsWithStatusHistory;
+    private List<StatusDwellDto> statusDwell;
+}
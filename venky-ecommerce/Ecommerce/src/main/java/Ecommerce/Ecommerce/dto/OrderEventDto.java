@@ -0,0 +1,22 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event as delivered to bus subscribers. Delivery is at least once: {@code id} is
+ * increasing per order item, so consumers can drop anything at or below the last id they handled.
+ */
+public record OrderEventDto(Long id,
+                            OrderEventType type,
+                            Long orderId,
+                            Long orderItemId,
+                            Long productId,
+                            Long userId,
+                            int quantity,
+                            OrderStatus status,
+                            OrderStatus previousStatus,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,21 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order-history line with the product columns it shows, read by a single
+ * constructor-expression query instead of loading OrderItem and Product entities.
+ */
+public record OrderHistoryRow(Long id,
+                              int quantity,
+                              BigDecimal price,
+                              OrderStatus status,
+                              LocalDateTime createdAt,
+                              Long productId,
+                              String productName,
+                              String productImageUrl,
+                              String productThumbnailUrl) {
+}
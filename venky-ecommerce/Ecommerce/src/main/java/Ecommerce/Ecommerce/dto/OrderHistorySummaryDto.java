@@ -0,0 +1,21 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderHistorySummaryDto {
+
+    private long itemCount;
+    // excludes cancelled and returned items
+    private BigDecimal totalSpent;
+    private LocalDateTime lastOrderAt;
+}
@@ -0,0 +1,23 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One exported order-item line, read by a constructor-expression query so streaming an export
+ * never puts entities into the persistence context.
+ */
+public record OrderItemExportRow(Long id,
+                                 Long orderId,
+                                 LocalDateTime createdAt,
+                                 OrderStatus status,
+                                 int quantity,
+                                 BigDecimal price,
+                                 Long productId,
+                                 String productName,
+                                 Long userId,
+                                 String userName,
+                                 String userEmail) {
+}
@@ -0,0 +1,12 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+/** The columns a bulk status change needs to keep stock in step, without loading OrderItem entities. */
+public record OrderItemStatusRow(Long id,
+                                 Long orderId,
+                                 Long userId,
+                                 Long productId,
+                                 int quantity,
+                                 OrderStatus status) {
+}
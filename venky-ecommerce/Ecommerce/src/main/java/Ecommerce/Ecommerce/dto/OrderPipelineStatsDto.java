@@ -0,0 +1,27 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPipelineStatsDto {
+
+    private boolean enabled;
+    private int queueDepth;
+    private int queueCapacity;
+    private int maxBatchSize;
+    private long maxWaitMillis;
+    private long batches;
+    private long orders;
+    // batches whose shared commit failed and were retried one order per transaction
+    private long fallbackBatches;
+    private double averageBatchSize;
+    private double averageBatchMillis;
+    private double lastBatchMillis;
+    private double maxBatchMillis;
+}
@@ -0,0 +1,7 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+/** Number of order items in one status, from a single GROUP BY over order_items. */
+public record OrderStatusCountRow(OrderStatus status, long count) {
+}
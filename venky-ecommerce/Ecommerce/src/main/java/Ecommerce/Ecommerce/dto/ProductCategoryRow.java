@@ -0,0 +1,4 @@
+package Ecommerce.Ecommerce.dto;
+
+public record ProductCategoryRow(Long productId, Long categoryId) {
+}
@@ -3,12 +3,14 @@ package Ecommerce.Ecommerce.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
+@Builder(toBuilder = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
 @AllArgsConstructor
@@ -18,6 +20,10 @@ public class ProductDto {
     private String name;
     private  String description;
     private BigDecimal price;
+    private Integer stock;
     private String imageUrl;
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String detailUrl;
     private CategoryDto category;
 }
@@ -0,0 +1,23 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReportStatusDto {
+
+    private String id;
+    // RUNNING, COMPLETED, CANCELLED or FAILED
+    private String state;
+    private int totalPartitions;
+    private int completedPartitions;
+    private long rowsScanned;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    // set once the report has completed
+    private MonthEndReportDto report;
+}
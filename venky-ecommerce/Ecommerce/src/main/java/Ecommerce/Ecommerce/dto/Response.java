@@ -1,10 +1,12 @@
 package Ecommerce.Ecommerce.dto;
+import Ecommerce.Ecommerce.enums.OrderStatus;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -21,10 +23,13 @@ public class Response {
 
     private int totalPage;
     private long totalElement;
+    private String nextCursor;
+    private Boolean hasNext;
 
     private AddressDto address;
 
     private UserDto user;
+    private OrderHistorySummaryDto orderHistorySummary;
     private List<UserDto> userList;
 
     private CategoryDto category;
@@ -32,9 +37,18 @@ public class Response {
 
     private ProductDto product;
     private List<ProductDto> productList;
+    private CacheStatsDto cacheStats;
+    private List<FlashSaleDto> flashSaleList;
 
     private OrderItemDto orderItem;
     private List<OrderItemDto> orderItemList;
+    private Long affectedRows;
+    private Map<OrderStatus, Long> statusCounts;
+    private OrderPipelineStatsDto orderPipelineStats;
+
+    private List<SalesRollupDto> salesRollupList;
+    private SalesBackfillStatusDto salesBackfillStatus;
+    private ReportStatusDto reportStatus;
 
     private OrderDto order;
     private List<OrderDto> orderList;
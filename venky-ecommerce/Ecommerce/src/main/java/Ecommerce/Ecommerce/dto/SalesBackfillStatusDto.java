@@ -0,0 +1,27 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesBackfillStatusDto {
+
+    private boolean running;
+    // incremental rollups cover items ordered from here on
+    private LocalDateTime epoch;
+    private LocalDateTime backfilledAt;
+    private int totalChunks;
+    private int completedChunks;
+    private int failedChunks;
+    private long orderItems;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String lastError;
+}
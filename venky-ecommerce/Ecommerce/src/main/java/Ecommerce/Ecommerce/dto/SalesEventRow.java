@@ -0,0 +1,22 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order event joined to what the sales rollups need from its item and product. The item
+ * columns are null when the item no longer exists.
+ */
+public record SalesEventRow(Long eventId,
+                            OrderEventType type,
+                            OrderStatus status,
+                            OrderStatus previousStatus,
+                            Long productId,
+                            Long categoryId,
+                            Integer quantity,
+                            BigDecimal price,
+                            LocalDateTime orderedAt) {
+}
@@ -0,0 +1,15 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Order item columns read, and locked, by the sales rollup backfill; foreign keys only. */
+public record SalesItemRow(Long id,
+                           Long productId,
+                           int quantity,
+                           BigDecimal price,
+                           OrderStatus status,
+                           LocalDateTime createdAt) {
+}
@@ -0,0 +1,16 @@
+package Ecommerce.Ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** One point of a sales chart: a bucket, optionally narrowed to a product or category. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SalesRollupDto(LocalDateTime bucketStart,
+                             Long productId,
+                             Long categoryId,
+                             Long orderItems,
+                             Long units,
+                             BigDecimal revenue) {
+}
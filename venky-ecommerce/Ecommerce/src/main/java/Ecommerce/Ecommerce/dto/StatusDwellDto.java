@@ -0,0 +1,7 @@
+package Ecommerce.Ecommerce.dto;
+
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+/** How long order items stayed in {@code status} before moving on, over the transitions seen. */
+public record StatusDwellDto(OrderStatus status, long transitions, double averageHours, double maxHours) {
+}
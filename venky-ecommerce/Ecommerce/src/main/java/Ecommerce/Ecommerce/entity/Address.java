@@ -7,11 +7,12 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "addresses")
+@Table(name = "addresses", indexes = @Index(name = "idx_addresses_user_id", columnList = "user_id"))
 public class Address {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addresses_seq")
+    @SequenceGenerator(name = "addresses_seq", sequenceName = "addresses_seq", allocationSize = 50)
     private Long id;
 
     private String street;
@@ -0,0 +1,27 @@
+package Ecommerce.Ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product currently sold from in-memory stock counters. The row exists for as long as the
+ * sale runs and records what is needed to rebuild the counter after a restart.
+ */
+@Data
+@Entity
+@Table(name = "flash_sales")
+public class FlashSale {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // products.stock when the sale started
+    @Column(name = "initial_stock", nullable = false)
+    private int initialStock;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+}
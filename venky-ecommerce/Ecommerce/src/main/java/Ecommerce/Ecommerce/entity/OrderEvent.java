@@ -0,0 +1,65 @@
+package Ecommerce.Ecommerce.entity;
+
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for one change to an order item, written in the same transaction as the change
+ * and published to the {@code OrderEventBus} by the relay afterwards.
+ */
+@Entity
+@Data
+@Table(name = "order_events", indexes = {
+        // relay poll: unpublished events in id order; retention cleanup: published before a cutoff
+        @Index(name = "idx_order_events_published_id", columnList = "published_at, id"),
+        // sales rollup poll: events not yet added to the rollups, in id order
+        @Index(name = "idx_order_events_rolled_up_id", columnList = "rolled_up_at, id"),
+        // month-end report: one order id range's events, per item in id order
+        @Index(name = "idx_order_events_order_item_id", columnList = "order_id, order_item_id, id")
+})
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private OrderEventType type;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_item_id", nullable = false)
+    private Long orderItemId;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private int quantity;
+
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    // null for ITEM_PLACED
+    @Column(name = "previous_status")
+    private OrderStatus previousStatus;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // null until the relay has handed the event to the bus
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // null until the event's sales are in the rollups (or covered by the rollup backfill)
+    @Column(name = "rolled_up_at")
+    private LocalDateTime rolledUpAt;
+}
@@ -9,11 +9,18 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        // back the admin filter: status equality + created_at range, ordered by (created_at, id)
+        @Index(name = "idx_order_items_status_created_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_order_items_created_id", columnList = "created_at, id"),
+        // order history: a user's items newest first
+        @Index(name = "idx_order_items_user_id_id", columnList = "user_id, id")
+})
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     private int quantity;
@@ -0,0 +1,27 @@
+package Ecommerce.Ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last persisted number of order items in one status, written from the in-memory counters
+ * so dashboards reading the database do not have to count order_items themselves.
+ */
+@Data
+@Entity
+@Table(name = "order_status_counts")
+public class OrderStatusCount {
+
+    // OrderStatus name
+    @Id
+    @Column(length = 20)
+    private String status;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
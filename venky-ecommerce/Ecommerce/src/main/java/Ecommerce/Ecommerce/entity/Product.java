@@ -7,11 +7,12 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_category_id", columnList = "category_id"))
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -19,6 +20,16 @@ public class Product {
     private String imageUrl;
     private BigDecimal price;
 
+    // units available to order; null means stock is not tracked for this product.
+    // Never written by entity updates (they would overwrite concurrent reservations), only by ProductRepo queries.
+    @Column(updatable = false)
+    private Integer stock;
+
+    // resized copies of imageUrl, filled in asynchronously after upload (null until ready)
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String detailUrl;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
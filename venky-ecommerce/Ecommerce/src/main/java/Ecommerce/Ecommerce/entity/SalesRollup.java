@@ -0,0 +1,59 @@
+package Ecommerce.Ecommerce.entity;
+
+import Ecommerce.Ecommerce.enums.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sales of one product in one hour or day, bucketed by when the items were ordered. Counts only
+ * items that are not cancelled or returned, so cancelling an item takes it back out of its bucket.
+ * Rows are only ever changed by adding deltas; see {@code SalesRollupService}.
+ */
+@Data
+@Entity
+@IdClass(SalesRollup.Key.class)
+@Table(name = "sales_rollups", indexes = {
+        // one product's series; per-category and total charts read the primary key range
+        @Index(name = "idx_sales_rollups_product", columnList = "product_id, granularity, bucket_start")
+})
+public class SalesRollup {
+
+    @Id
+    private RollupGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // the product's category when the bucket was first written
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "order_items", nullable = false)
+    private long orderItems;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private RollupGranularity granularity;
+        private LocalDateTime bucketStart;
+        private Long productId;
+    }
+}
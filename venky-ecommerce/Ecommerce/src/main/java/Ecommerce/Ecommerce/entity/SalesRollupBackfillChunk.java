@@ -0,0 +1,31 @@
+package Ecommerce.Ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order item id range the backfill has already added to the rollups, committed with the
+ * rollup rows so an interrupted backfill can resume without counting a range twice.
+ */
+@Data
+@Entity
+@Table(name = "sales_rollup_backfill_chunks")
+public class SalesRollupBackfillChunk {
+
+    // first order item id of the range
+    @Id
+    @Column(name = "first_id")
+    private Long firstId;
+
+    // exclusive
+    @Column(name = "end_id", nullable = false)
+    private Long endId;
+
+    @Column(name = "order_items", nullable = false)
+    private long orderItems;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
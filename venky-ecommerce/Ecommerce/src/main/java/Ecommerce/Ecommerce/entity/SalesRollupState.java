@@ -0,0 +1,28 @@
+package Ecommerce.Ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single row recording where incremental rollups start. Items ordered from {@code epoch} on are
+ * rolled up from their order events; older ones are left to the one-time backfill.
+ */
+@Data
+@Entity
+@Table(name = "sales_rollup_state")
+public class SalesRollupState {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private LocalDateTime epoch;
+
+    // null until every item ordered before the epoch has been backfilled
+    @Column(name = "backfilled_at")
+    private LocalDateTime backfilledAt;
+}
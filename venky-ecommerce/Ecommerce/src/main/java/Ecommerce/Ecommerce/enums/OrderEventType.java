@@ -0,0 +1,6 @@
+package Ecommerce.Ecommerce.enums;
+
+/** Stored by ordinal in order_events, so new constants go at the end. */
+public enum OrderEventType {
+    ITEM_PLACED, STATUS_CHANGED
+}
@@ -1,6 +1,28 @@
 package Ecommerce.Ecommerce.enums;
 
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fulfilment states of an order item. Stored by ordinal, so new constants go at the end.
+ */
 public enum OrderStatus {
-    PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED, RETURNED
+    PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED, RETURNED;
+
+    /** Statuses an item in this status may move to. CANCELLED can be reopened; RETURNED is final. */
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, CANCELLED);
+            case CONFIRMED -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED, RETURNED);
+            case DELIVERED -> EnumSet.of(RETURNED);
+            case CANCELLED -> EnumSet.of(PENDING);
+            case RETURNED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return nextStatuses().contains(next);
+    }
 }
@@ -0,0 +1,20 @@
+package Ecommerce.Ecommerce.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/** Stored by ordinal in sales_rollups, so new constants go at the end. */
+public enum RollupGranularity {
+    HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /** Start of the bucket that {@code time} falls in. */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,172 @@
+package Ecommerce.Ecommerce.event;
+
+import Ecommerce.Ecommerce.dto.OrderEventDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams order events to connected admin dashboards over Server-Sent Events. An idle
+ * connection is only an {@link SseEmitter} and a small buffer: it holds no thread. Writes run
+ * on virtual threads, one per client while it has something to send. Each client buffers at
+ * most {@code order-events.sse.buffer-size} events; a client that falls further behind loses
+ * its oldest events rather than holding up the bus or other clients.
+ */
+@Component
+@Slf4j
+public class OrderEventBroadcaster {
+
+    private final OrderEventBus orderEventBus;
+    private final int bufferSize;
+    private final int maxClients;
+    private final long timeoutMillis;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private OrderEventBus.Subscription subscription;
+
+    public OrderEventBroadcaster(OrderEventBus orderEventBus,
+                                 @Value("${order-events.sse.buffer-size:256}") int bufferSize,
+                                 @Value("${order-events.sse.max-clients:5000}") int maxClients,
+                                 @Value("${order-events.sse.timeout-ms:1800000}") long timeoutMillis) {
+        this.orderEventBus = orderEventBus;
+        this.bufferSize = bufferSize;
+        this.maxClients = maxClients;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        // fan-out only copies into client buffers, so a small bus queue is enough
+        subscription = orderEventBus.subscribe("sse", 1024, this::broadcast);
+    }
+
+    /** Registers a new stream; the browser reconnects on its own when it times out. */
+    public SseEmitter connect() {
+        if (clients.size() >= maxClients) {
+            throw new IllegalStateException("Too many order event streams");
+        }
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Client client = new Client(emitter);
+        clients.add(client);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        return emitter;
+    }
+
+    // overridden by tests to capture what each client is sent
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    public int clientCount() {
+        return clients.size();
+    }
+
+    void broadcast(OrderEventDto event) {
+        for (Client client : clients) {
+            client.offer(event);
+        }
+    }
+
+    // proxies drop connections that stay silent, and a dead client is only noticed on write
+    @Scheduled(fixedDelayString = "${order-events.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Client client : clients) {
+            senders.execute(() -> client.send(SseEmitter.event().comment("keep-alive")));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+        clients.forEach(client -> client.emitter.complete());
+        senders.shutdown();
+    }
+
+    private final class Client {
+
+        private final SseEmitter emitter;
+        private final Deque<OrderEventDto> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private long dropped;
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(OrderEventDto event) {
+            synchronized (this) {
+                if (buffer.size() == bufferSize) {
+                    buffer.pollFirst();
+                    dropped++;
+                }
+                buffer.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                List<OrderEventDto> batch;
+                long droppedSinceLastSend;
+                synchronized (this) {
+                    if (buffer.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(buffer);
+                    buffer.clear();
+                    droppedSinceLastSend = dropped;
+                    dropped = 0;
+                }
+                if (droppedSinceLastSend > 0
+                        && !send(SseEmitter.event().name("dropped").data(droppedSinceLastSend))) {
+                    return;
+                }
+                for (OrderEventDto event : batch) {
+                    if (!send(SseEmitter.event()
+                            .id(String.valueOf(event.id()))
+                            .name(event.type().name())
+                            .data(event, MediaType.APPLICATION_JSON))) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // client went away; stop buffering for it
+                clients.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package Ecommerce.Ecommerce.event;
+
+import Ecommerce.Ecommerce.dto.OrderEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of order events. Each subscriber has its own bounded queue drained by its
+ * own thread, so it sees events in publish order and a slow handler never runs on the relay.
+ * When any subscriber's queue is full the event is not delivered to anyone and the relay stops
+ * and retries later: a slow subscriber holds events back in the outbox rather than losing them.
+ */
+@Component
+@Slf4j
+public class OrderEventBus {
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Starts delivering events published from now on to {@code handler}. Handler failures are
+     * logged and the next event is delivered; close the subscription to stop.
+     */
+    public Subscription subscribe(String name, int capacity, Consumer<OrderEventDto> handler) {
+        Subscription subscription = new Subscription(name, capacity, handler);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /** Delivers the event to every subscriber, or to none and returns false if one of them is full. */
+    synchronized boolean publish(OrderEventDto event) {
+        // only publish() adds to the queues, so capacity checked here cannot disappear before the offers
+        for (Subscription subscription : subscriptions) {
+            if (subscription.queue.remainingCapacity() == 0) {
+                return false;
+            }
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.queue.offer(event);
+        }
+        return true;
+    }
+
+    public final class Subscription implements AutoCloseable {
+
+        private final String name;
+        private final BlockingQueue<OrderEventDto> queue;
+        private final Consumer<OrderEventDto> handler;
+        private final Thread thread;
+
+        private Subscription(String name, int capacity, Consumer<OrderEventDto> handler) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.handler = handler;
+            this.thread = new Thread(this::deliver, "order-events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public int backlog() {
+            return queue.size();
+        }
+
+        private void deliver() {
+            while (!Thread.currentThread().isInterrupted()) {
+                OrderEventDto event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    log.warn("Order event subscriber {} failed on event {}: {}", name, event.id(), e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package Ecommerce.Ecommerce.event;
+
+import Ecommerce.Ecommerce.dto.OrderItemStatusRow;
+import Ecommerce.Ecommerce.entity.Order;
+import Ecommerce.Ecommerce.entity.OrderEvent;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes order events to the outbox table. Must be called inside the transaction that makes
+ * the change, so an event exists exactly when its change was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    private final OrderEventRepo orderEventRepo;
+
+    /** One ITEM_PLACED event per item of a newly saved order (ids must already be assigned). */
+    public void itemsPlaced(Order order) {
+        orderEventRepo.saveAll(order.getOrderItemList().stream()
+                .map(item -> event(OrderEventType.ITEM_PLACED, order.getId(), item, null))
+                .toList());
+    }
+
+    public void statusChanged(OrderItem item, OrderStatus previousStatus) {
+        orderEventRepo.save(event(OrderEventType.STATUS_CHANGED,
+                item.getOrder() != null ? item.getOrder().getId() : null, item, previousStatus));
+    }
+
+    /** STATUS_CHANGED events for items moved by a bulk update; rows hold their status before the move. */
+    public void statusChanged(List<OrderItemStatusRow> rows, OrderStatus newStatus) {
+        orderEventRepo.saveAll(rows.stream().map(row -> {
+            OrderEvent event = new OrderEvent();
+            event.setType(OrderEventType.STATUS_CHANGED);
+            event.setOrderId(row.orderId());
+            event.setOrderItemId(row.id());
+            event.setProductId(row.productId());
+            event.setUserId(row.userId());
+            event.setQuantity(row.quantity());
+            event.setStatus(newStatus);
+            event.setPreviousStatus(row.status());
+            return event;
+        }).toList());
+    }
+
+    private static OrderEvent event(OrderEventType type, Long orderId, OrderItem item, OrderStatus previousStatus) {
+        OrderEvent event = new OrderEvent();
+        event.setType(type);
+        event.setOrderId(orderId);
+        event.setOrderItemId(item.getId());
+        event.setProductId(item.getProduct() != null ? item.getProduct().getId() : null);
+        event.setUserId(item.getUser() != null ? item.getUser().getId() : null);
+        event.setQuantity(item.getQuantity());
+        event.setStatus(item.getStatus());
+        event.setPreviousStatus(previousStatus);
+        return event;
+    }
+}
@@ -0,0 +1,77 @@
+package Ecommerce.Ecommerce.event;
+
+import Ecommerce.Ecommerce.entity.OrderEvent;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves committed events from the outbox to the {@link OrderEventBus} in id order and marks
+ * them published. Delivery is at least once: events handed to the bus just before a crash are
+ * handed over again after restart. Published events are deleted after the retention period.
+ */
+@Component
+@Slf4j
+public class OrderEventRelay {
+
+    private final OrderEventRepo orderEventRepo;
+    private final OrderEventBus orderEventBus;
+    private final EntityDtoMapper entityDtoMapper;
+    private final int batchSize;
+    private final int retentionDays;
+
+    public OrderEventRelay(OrderEventRepo orderEventRepo,
+                           OrderEventBus orderEventBus,
+                           EntityDtoMapper entityDtoMapper,
+                           @Value("${order-events.relay.batch-size:500}") int batchSize,
+                           @Value("${order-events.retention-days:7}") int retentionDays) {
+        this.orderEventRepo = orderEventRepo;
+        this.orderEventBus = orderEventBus;
+        this.entityDtoMapper = entityDtoMapper;
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+    }
+
+    // synchronized: two overlapping runs would hand the same events to the bus twice
+    @Scheduled(fixedDelayString = "${order-events.relay.interval-ms:200}")
+    public synchronized void relay() {
+        // keep draining while batches come back full and the bus keeps up
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /** Publishes the next batch; returns how many events the bus accepted. */
+    int relayBatch() {
+        List<OrderEvent> events = orderEventRepo.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        List<Long> published = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            if (!orderEventBus.publish(entityDtoMapper.mapOrderEventToDto(event))) {
+                log.debug("Order event bus is full, {} events left for the next run", events.size() - published.size());
+                break;
+            }
+            published.add(event.getId());
+        }
+        if (!published.isEmpty()) {
+            orderEventRepo.markPublished(published, LocalDateTime.now());
+        }
+        return published.size();
+    }
+
+    @Scheduled(cron = "${order-events.cleanup-cron:0 30 3 * * *}")
+    public void deleteExpired() {
+        int deleted = orderEventRepo.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Deleted {} published order events older than {} days", deleted, retentionDays);
+        }
+    }
+}
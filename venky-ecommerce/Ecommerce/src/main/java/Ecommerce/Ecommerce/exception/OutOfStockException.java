@@ -0,0 +1,8 @@
+package Ecommerce.Ecommerce.exception;
+
+public class OutOfStockException extends RuntimeException{
+
+    public OutOfStockException(String message){
+        super(message);
+    }
+}
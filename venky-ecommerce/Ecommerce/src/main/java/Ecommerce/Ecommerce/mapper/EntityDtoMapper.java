@@ -20,6 +20,13 @@ public class EntityDtoMapper {
 
     }
 
+    //OrderEvent outbox row to the event delivered on the bus
+    public OrderEventDto mapOrderEventToDto(OrderEvent event){
+        return new OrderEventDto(event.getId(), event.getType(), event.getOrderId(), event.getOrderItemId(),
+                event.getProductId(), event.getUserId(), event.getQuantity(), event.getStatus(),
+                event.getPreviousStatus(), event.getCreatedAt());
+    }
+
     //Address to DTO Basic
     public AddressDto mapAddressToDtoBasic(Address address){
         AddressDto addressDto = new AddressDto();
@@ -60,7 +67,11 @@ public class EntityDtoMapper {
         productDto.setName(product.getName());
         productDto.setDescription(product.getDescription());
         productDto.setPrice(product.getPrice());
+        productDto.setStock(product.getStock());
         productDto.setImageUrl(product.getImageUrl());
+        productDto.setThumbnailUrl(product.getThumbnailUrl());
+        productDto.setCardUrl(product.getCardUrl());
+        productDto.setDetailUrl(product.getDetailUrl());
         return productDto;
     }
 
@@ -100,6 +111,26 @@ public class EntityDtoMapper {
         }
         return orderItemDto;
     }
+    //OrderHistoryRow projection to OrderItemDto with a slim product
+    public OrderItemDto mapOrderHistoryRowToDto(OrderHistoryRow row){
+        OrderItemDto orderItemDto = new OrderItemDto();
+        orderItemDto.setId(row.id());
+        orderItemDto.setQuantity(row.quantity());
+        orderItemDto.setPrice(row.price());
+        orderItemDto.setStatus(row.status().name());
+        orderItemDto.setCreatedAt(row.createdAt());
+
+        if (row.productId() != null) {
+            ProductDto productDto = new ProductDto();
+            productDto.setId(row.productId());
+            productDto.setName(row.productName());
+            productDto.setImageUrl(row.productImageUrl());
+            productDto.setThumbnailUrl(row.productThumbnailUrl());
+            orderItemDto.setProduct(productDto);
+        }
+        return orderItemDto;
+    }
+
     //USer to DTO with Address and Order Items History
     public UserDto mapUserToDtoPlusAddressAndOrderHistory(User user) {
         UserDto userDto = mapUserToDtoPlusAddress(user);
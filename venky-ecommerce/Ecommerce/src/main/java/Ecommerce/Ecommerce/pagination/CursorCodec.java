@@ -0,0 +1,77 @@
+package Ecommerce.Ecommerce.pagination;
+
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions into opaque, URL-safe cursors so clients never
+ * depend on the underlying sort columns.
+ */
+public final class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    public static String encodeId(long id) {
+        return encode("id:" + id);
+    }
+
+    public static Long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = decode(cursor);
+        if (!raw.startsWith("id:")) {
+            throw new InvalidCredentialsException("Invalid cursor");
+        }
+        try {
+            return Long.parseLong(raw.substring(3));
+        } catch (NumberFormatException e) {
+            throw new InvalidCredentialsException("Invalid cursor");
+        }
+    }
+
+    public static String encodeSeek(LocalDateTime createdAt, long id) {
+        return encode("seek:" + createdAt + "|" + id);
+    }
+
+    public static SeekPosition decodeSeek(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = decode(cursor);
+        int separator = raw.lastIndexOf('|');
+        if (!raw.startsWith("seek:") || separator < 0) {
+            throw new InvalidCredentialsException("Invalid cursor");
+        }
+        try {
+            return new SeekPosition(LocalDateTime.parse(raw.substring(5, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new InvalidCredentialsException("Invalid cursor");
+        }
+    }
+
+    /** Last row of a page ordered by {@code (createdAt DESC, id DESC)}. */
+    public record SeekPosition(LocalDateTime createdAt, long id) {
+    }
+
+    private static String encode(String raw) {
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package Ecommerce.Ecommerce.report;
+
+import Ecommerce.Ecommerce.dto.CohortRevenueDto;
+import Ecommerce.Ecommerce.dto.MonthEndReportDto;
+import Ecommerce.Ecommerce.dto.StatusDwellDto;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Month-end totals for one or more partitions, kept in primitive counters and arrays (money in
+ * cents) so a worker allocates nothing per row. Partial results are combined with {@link #merge}.
+ */
+final class ReportAccumulator {
+
+    static final int BASKET_BUCKETS = 10;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    // cohorts and months since signup, both counted in months from firstMonth
+    private final YearMonth firstMonth;
+    private final int months;
+
+    private long orders;
+    private long orderItems;
+    private long units;
+    private long placedCents;
+    private long revenueCents;
+    private final long[] itemsPerOrder = new long[BASKET_BUCKETS];
+
+    private final long[] cohortItems;
+    private final long[] cohortRevenueCents;
+
+    private long itemsWithHistory;
+    private final long[] dwellCount = new long[STATUSES.length];
+    private final long[] dwellMillis = new long[STATUSES.length];
+    private final long[] dwellMaxMillis = new long[STATUSES.length];
+
+    ReportAccumulator(YearMonth firstMonth, int months) {
+        this.firstMonth = firstMonth;
+        this.months = months;
+        this.cohortItems = new long[months];
+        this.cohortRevenueCents = new long[months * months];
+    }
+
+    void addOrder(int itemCount) {
+        orders++;
+        itemsPerOrder[Math.min(itemCount, BASKET_BUCKETS) - 1]++;
+    }
+
+    /**
+     * @param itemMonth   months from firstMonth to the month the item was ordered
+     * @param cohortMonth months from firstMonth to the customer's signup, or -1 if unknown
+     */
+    void addItem(int quantity, long priceCents, boolean restocked, int itemMonth, int cohortMonth) {
+        orderItems++;
+        units += quantity;
+        placedCents += priceCents;
+        if (restocked) {
+            return;
+        }
+        revenueCents += priceCents;
+        int offset = itemMonth - cohortMonth;
+        if (cohortMonth >= 0 && cohortMonth < months && offset >= 0 && offset < months) {
+            cohortItems[cohortMonth]++;
+            cohortRevenueCents[cohortMonth * months + offset] += priceCents;
+        }
+    }
+
+    void addItemWithHistory() {
+        itemsWithHistory++;
+    }
+
+    void addDwell(int status, long millis) {
+        dwellCount[status]++;
+        dwellMillis[status] += millis;
+        dwellMaxMillis[status] = Math.max(dwellMaxMillis[status], millis);
+    }
+
+    ReportAccumulator merge(ReportAccumulator other) {
+        orders += other.orders;
+        orderItems += other.orderItems;
+        units += other.units;
+        placedCents += other.placedCents;
+        revenueCents += other.revenueCents;
+        add(itemsPerOrder, other.itemsPerOrder);
+        add(cohortItems, other.cohortItems);
+        add(cohortRevenueCents, other.cohortRevenueCents);
+        itemsWithHistory += other.itemsWithHistory;
+        add(dwellCount, other.dwellCount);
+        add(dwellMillis, other.dwellMillis);
+        for (int i = 0; i < dwellMaxMillis.length; i++) {
+            dwellMaxMillis[i] = Math.max(dwellMaxMillis[i], other.dwellMaxMillis[i]);
+        }
+        return this;
+    }
+
+    MonthEndReportDto toDto() {
+        MonthEndReportDto dto = new MonthEndReportDto();
+        dto.setOrders(orders);
+        dto.setOrderItems(orderItems);
+        dto.setUnits(units);
+        dto.setPlacedValue(money(placedCents));
+        dto.setRevenue(money(revenueCents));
+        if (orders > 0) {
+            dto.setAverageItemsPerOrder((double) orderItems / orders);
+            dto.setAverageUnitsPerOrder((double) units / orders);
+            dto.setAverageOrderValue(money(placedCents).divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP));
+        }
+        dto.setItemsPerOrderHistogram(Arrays.stream(itemsPerOrder).boxed().toList());
+
+        List<CohortRevenueDto> cohorts = new ArrayList<>();
+        for (int cohort = 0; cohort < months; cohort++) {
+            if (cohortItems[cohort] == 0) {
+                continue;
+            }
+            // months since signup that have already happened
+            List<BigDecimal> revenueByMonth = new ArrayList<>();
+            for (int offset = 0; offset < months - cohort; offset++) {
+                revenueByMonth.add(money(cohortRevenueCents[cohort * months + offset]));
+            }
+            cohorts.add(new CohortRevenueDto(firstMonth.plusMonths(cohort).toString(), cohortItems[cohort], revenueByMonth));
+        }
+        dto.setCohorts(cohorts);
+
+        dto.setItemsWithStatusHistory(itemsWithHistory);
+        List<StatusDwellDto> dwell = new ArrayList<>();
+        for (OrderStatus status : STATUSES) {
+            long count = dwellCount[status.ordinal()];
+            if (count > 0) {
+                dwell.add(new StatusDwellDto(status, count,
+                        dwellMillis[status.ordinal()] / MILLIS_PER_HOUR / count,
+                        dwellMaxMillis[status.ordinal()] / MILLIS_PER_HOUR));
+            }
+        }
+        dto.setStatusDwell(dwell);
+        return dto;
+    }
+
+    private static void add(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,369 @@
+package Ecommerce.Ecommerce.report;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs the month-end report over the whole order history. The order id range is cut into
+ * partitions that a fork-join pool scans in parallel; each partition streams its order items
+ * (in order id, item id order, so every basket is seen whole) into a {@link ReportAccumulator},
+ * and the partial results are merged as the tasks join.
+ *
+ * <p>Reports use their own small read-only connection pool, by default against the primary
+ * database ({@code reports.datasource.url} can point it at a replica). Checkout never waits for
+ * a connection a report holds, and plain reads take no row locks. Only one report runs at a time;
+ * its progress can be polled and it can be cancelled between rows.
+ */
+@Component
+@Slf4j
+public class ReportEngine {
+
+    private static final int MAX_KEPT_REPORTS = 20;
+    private static final int PROGRESS_EVERY_ROWS = 1024;
+    private static final int CANCELLED = OrderStatus.CANCELLED.ordinal();
+    private static final int RETURNED = OrderStatus.RETURNED.ordinal();
+
+    private static final String ITEMS_SQL =
+            "select oi.order_id, oi.id, oi.quantity, oi.price, oi.status, oi.created_at, u.created_at " +
+            "from order_items oi left join users u on u.id = oi.user_id " +
+            "where oi.order_id >= ? and oi.order_id < ? order by oi.order_id, oi.id";
+
+    private static final String EVENTS_SQL =
+            "select order_id, order_item_id, type, previous_status, created_at from order_events " +
+            "where order_id >= ? and order_id < ? order by order_id, order_item_id, id";
+
+    private final HikariDataSource dataSource;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final int fetchSize;
+
+    // most recent reports, oldest first
+    private final Map<String, ReportRun> reports = new LinkedHashMap<>();
+
+    public ReportEngine(DataSourceProperties dataSourceProperties,
+                        @Value("${reports.datasource.url:}") String url,
+                        @Value("${reports.parallelism:2}") int parallelism,
+                        @Value("${reports.partition-size:5000}") int partitionSize,
+                        @Value("${reports.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (!url.isBlank()) {
+            dataSource.setJdbcUrl(url);
+        }
+        dataSource.setPoolName("reports");
+        dataSource.setReadOnly(true);
+        // one connection per worker; nothing is opened until the first report runs
+        dataSource.setMaximumPoolSize(parallelism);
+        dataSource.setMinimumIdle(0);
+        // each partition reads its own fresh snapshot rather than holding one open for the whole report
+        dataSource.setTransactionIsolation("TRANSACTION_READ_COMMITTED");
+        this.pool = new ForkJoinPool(parallelism);
+        this.partitionSize = partitionSize;
+        this.fetchSize = fetchSize;
+    }
+
+    public synchronized Response startMonthEndReport() {
+        for (ReportRun report : reports.values()) {
+            if (report.state == ReportRun.State.RUNNING) {
+                throw new InvalidCredentialsException("Report " + report.id + " is still running");
+            }
+        }
+
+        ReportRun report;
+        try {
+            report = plan();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not plan the report: " + e.getMessage(), e);
+        }
+        keep(report);
+
+        PartitionTask root = new PartitionTask(report, 0, report.totalPartitions);
+        Thread.ofVirtual().name("report-" + report.id).start(() -> run(report, root));
+        log.info("Report {} started over {} partitions", report.id, report.totalPartitions);
+
+        return Response.builder()
+                .status(200)
+                .message("Report started")
+                .reportStatus(report.toDto())
+                .build();
+    }
+
+    public synchronized Response getReport(String id) {
+        return Response.builder()
+                .status(200)
+                .reportStatus(find(id).toDto())
+                .build();
+    }
+
+    public synchronized Response cancelReport(String id) {
+        ReportRun report = find(id);
+        if (report.state != ReportRun.State.RUNNING) {
+            throw new InvalidCredentialsException("Report " + id + " is no longer running");
+        }
+        // workers see the flag at their next row and stop
+        report.cancelled = true;
+        return Response.builder()
+                .status(200)
+                .message("Report cancellation requested")
+                .reportStatus(report.toDto())
+                .build();
+    }
+
+    /** Fixes the order id range and the month range of the cohort table before any partition runs. */
+    private ReportRun plan() throws SQLException {
+        long firstOrderId = 0;
+        long endOrderId = 0;
+        LocalDateTime firstTime = LocalDateTime.now();
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement("select min(id), max(id) from orders");
+                 ResultSet rs = statement.executeQuery()) {
+                if (rs.next() && rs.getObject(1) != null) {
+                    firstOrderId = rs.getLong(1);
+                    endOrderId = rs.getLong(2) + 1;
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select min(created_at) from users union all select min(created_at) from order_items");
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp time = rs.getTimestamp(1);
+                    if (time != null && time.toLocalDateTime().isBefore(firstTime)) {
+                        firstTime = time.toLocalDateTime();
+                    }
+                }
+            }
+        }
+        YearMonth firstMonth = YearMonth.from(firstTime);
+        int months = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.now()) + 1;
+        int partitions = (int) ((endOrderId - firstOrderId + partitionSize - 1) / partitionSize);
+        return new ReportRun(UUID.randomUUID().toString(), firstOrderId, firstMonth, months, partitions);
+    }
+
+    private void run(ReportRun report, PartitionTask root) {
+        try {
+            ReportAccumulator result = report.totalPartitions == 0
+                    ? new ReportAccumulator(report.firstMonth, report.months)
+                    : pool.invoke(root);
+            report.finish(ReportRun.State.COMPLETED, result, null);
+            log.info("Report {} completed: {} rows", report.id, report.rowsScanned.get());
+        } catch (CancellationException e) {
+            report.finish(ReportRun.State.CANCELLED, null, null);
+            log.info("Report {} cancelled after {} rows", report.id, report.rowsScanned.get());
+        } catch (RuntimeException e) {
+            report.finish(ReportRun.State.FAILED, null, e.getMessage());
+            log.error("Report {} failed", report.id, e);
+        }
+    }
+
+    /** Scans one partition: its items in (order id, item id) order, merge-joined with their events. */
+    private ReportAccumulator scan(ReportRun report, int partition) throws SQLException {
+        long firstOrderId = report.firstOrderId + (long) partition * partitionSize;
+        long endOrderId = firstOrderId + partitionSize;
+        ReportAccumulator accumulator = new ReportAccumulator(report.firstMonth, report.months);
+
+        try (Connection connection = dataSource.getConnection()) {
+            // read first and closed: a MySQL connection can only stream one result at a time
+            List<EventRow> events = loadEvents(connection, firstOrderId, endOrderId);
+            int nextEvent = 0;
+            long currentOrderId = -1;
+            int itemsInOrder = 0;
+            int rows = 0;
+
+            try (PreparedStatement statement = connection.prepareStatement(ITEMS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, firstOrderId);
+                statement.setLong(2, endOrderId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        if (++rows == PROGRESS_EVERY_ROWS) {
+                            report.rowsScanned.addAndGet(rows);
+                            rows = 0;
+                            if (report.cancelled) {
+                                throw new CancellationException();
+                            }
+                        }
+                        long orderId = rs.getLong(1);
+                        long itemId = rs.getLong(2);
+                        if (orderId != currentOrderId) {
+                            if (itemsInOrder > 0) {
+                                accumulator.addOrder(itemsInOrder);
+                            }
+                            currentOrderId = orderId;
+                            itemsInOrder = 0;
+                        }
+                        itemsInOrder++;
+
+                        int status = rs.getInt(5);
+                        Timestamp createdAt = rs.getTimestamp(6);
+                        Timestamp signedUpAt = rs.getTimestamp(7);
+                        accumulator.addItem(rs.getInt(3), cents(rs.getBigDecimal(4)),
+                                status == CANCELLED || status == RETURNED,
+                                monthIndex(report.firstMonth, createdAt), monthIndex(report.firstMonth, signedUpAt));
+
+                        // skip events of items that no longer exist, then replay this item's history
+                        while (nextEvent < events.size() && events.get(nextEvent).before(orderId, itemId)) {
+                            nextEvent++;
+                        }
+                        nextEvent = replayHistory(accumulator, events, nextEvent, orderId, itemId, createdAt);
+                    }
+                }
+            }
+            if (itemsInOrder > 0) {
+                accumulator.addOrder(itemsInOrder);
+            }
+            report.rowsScanned.addAndGet(rows);
+        }
+        report.completedPartitions.incrementAndGet();
+        return accumulator;
+    }
+
+    /**
+     * Adds the time the item spent in each status it has left. Only items whose ITEM_PLACED event
+     * is still in the outbox count: for older items the start of their history has been deleted.
+     */
+    private static int replayHistory(ReportAccumulator accumulator, List<EventRow> events, int index,
+                                     long orderId, long itemId, Timestamp itemCreatedAt) {
+        boolean placedSeen = false;
+        long enteredAt = itemCreatedAt != null ? itemCreatedAt.getTime() : 0;
+        while (index < events.size() && events.get(index).is(orderId, itemId)) {
+            EventRow event = events.get(index++);
+            if (event.type == OrderEventType.ITEM_PLACED.ordinal()) {
+                placedSeen = itemCreatedAt != null;
+            } else if (placedSeen && event.previousStatus >= 0) {
+                accumulator.addDwell(event.previousStatus, Math.max(0, event.createdAtMillis - enteredAt));
+                enteredAt = event.createdAtMillis;
+            }
+        }
+        if (placedSeen) {
+            accumulator.addItemWithHistory();
+        }
+        return index;
+    }
+
+    private static List<EventRow> loadEvents(Connection connection, long firstOrderId, long endOrderId) throws SQLException {
+        List<EventRow> events = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(EVENTS_SQL)) {
+            statement.setLong(1, firstOrderId);
+            statement.setLong(2, endOrderId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    int previousStatus = rs.getInt(4);
+                    if (rs.wasNull()) {
+                        previousStatus = -1;
+                    }
+                    events.add(new EventRow(rs.getLong(1), rs.getLong(2), rs.getInt(3), previousStatus,
+                            rs.getTimestamp(5).getTime()));
+                }
+            }
+        }
+        return events;
+    }
+
+    private static long cents(BigDecimal price) {
+        return price == null ? 0 : price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static int monthIndex(YearMonth firstMonth, Timestamp time) {
+        return time == null ? -1 : (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(time.toLocalDateTime()));
+    }
+
+    private ReportRun find(String id) {
+        ReportRun report = reports.get(id);
+        if (report == null) {
+            throw new NotFoundException("Report Not Found");
+        }
+        return report;
+    }
+
+    private void keep(ReportRun report) {
+        reports.put(report.id, report);
+        Iterator<ReportRun> oldest = reports.values().iterator();
+        while (reports.size() > MAX_KEPT_REPORTS && oldest.hasNext()) {
+            if (oldest.next().state != ReportRun.State.RUNNING) {
+                oldest.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            reports.values().forEach(report -> report.cancelled = true);
+        }
+        pool.shutdownNow();
+        dataSource.close();
+    }
+
+    /** Splits a partition range in halves until one partition is left, then scans it. */
+    private final class PartitionTask extends RecursiveTask<ReportAccumulator> {
+
+        private final ReportRun report;
+        private final int from;
+        private final int to;
+
+        private PartitionTask(ReportRun report, int from, int to) {
+            this.report = report;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReportAccumulator compute() {
+            if (report.cancelled) {
+                throw new CancellationException();
+            }
+            if (to - from == 1) {
+                try {
+                    return scan(report, from);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Report partition " + from + " failed: " + e.getMessage(), e);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(report, from, middle);
+            left.fork();
+            ReportAccumulator right = new PartitionTask(report, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private record EventRow(long orderId, long orderItemId, int type, int previousStatus, long createdAtMillis) {
+
+        boolean is(long orderId, long itemId) {
+            return this.orderId == orderId && this.orderItemId == itemId;
+        }
+
+        boolean before(long orderId, long itemId) {
+            return this.orderId < orderId || (this.orderId == orderId && this.orderItemId < itemId);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package Ecommerce.Ecommerce.report;
+
+import Ecommerce.Ecommerce.dto.ReportStatusDto;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** One report run: its plan, live progress and, once completed, its result. */
+final class ReportRun {
+
+    enum State { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    final String id;
+    final long firstOrderId;
+    final YearMonth firstMonth;
+    final int months;
+    final int totalPartitions;
+    final LocalDateTime startedAt = LocalDateTime.now();
+    final AtomicInteger completedPartitions = new AtomicInteger();
+    final AtomicLong rowsScanned = new AtomicLong();
+
+    volatile boolean cancelled;
+    volatile State state = State.RUNNING;
+    private volatile ReportAccumulator result;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    ReportRun(String id, long firstOrderId, YearMonth firstMonth, int months, int totalPartitions) {
+        this.id = id;
+        this.firstOrderId = firstOrderId;
+        this.firstMonth = firstMonth;
+        this.months = months;
+        this.totalPartitions = totalPartitions;
+    }
+
+    void finish(State finalState, ReportAccumulator finalResult, String failure) {
+        result = finalResult;
+        error = failure;
+        finishedAt = LocalDateTime.now();
+        state = finalState;
+    }
+
+    ReportStatusDto toDto() {
+        ReportStatusDto dto = new ReportStatusDto();
+        dto.setId(id);
+        dto.setState(state.name());
+        dto.setTotalPartitions(totalPartitions);
+        dto.setCompletedPartitions(completedPartitions.get());
+        dto.setRowsScanned(rowsScanned.get());
+        dto.setStartedAt(startedAt);
+        dto.setFinishedAt(finishedAt);
+        dto.setError(error);
+        ReportAccumulator completed = result;
+        if (completed != null) {
+            dto.setReport(completed.toDto());
+        }
+        return dto;
+    }
+}
@@ -3,5 +3,9 @@ package Ecommerce.Ecommerce.repository;
 import Ecommerce.Ecommerce.entity.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface AddressRepo extends JpaRepository<Address, Long> {
+
+    Optional<Address> findByUserId(Long userId);
 }
@@ -0,0 +1,7 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.entity.FlashSale;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FlashSaleRepo extends JpaRepository<FlashSale, Long> {
+}
@@ -0,0 +1,60 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.dto.SalesEventRow;
+import Ecommerce.Ecommerce.entity.OrderEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderEventRepo extends JpaRepository<OrderEvent, Long> {
+
+    /** Oldest unpublished events first; served by the (published_at, id) index. */
+    List<OrderEvent> findByPublishedAtIsNullOrderByIdAsc(Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update OrderEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    /**
+     * Oldest events not yet in the sales rollups, with their item's price and order time. Until
+     * the backfill is done, events of items ordered before the epoch are left for the backfill.
+     */
+    @Query("select new Ecommerce.Ecommerce.dto.SalesEventRow(e.id, e.type, e.status, e.previousStatus, " +
+            "e.productId, p.category.id, oi.quantity, oi.price, oi.createdAt) " +
+            "from OrderEvent e left join OrderItem oi on oi.id = e.orderItemId left join Product p on p.id = e.productId " +
+            "where e.rolledUpAt is null and (oi.id is null or oi.createdAt >= :epoch or :backfilled = true) " +
+            "order by e.id")
+    List<SalesEventRow> findSalesRowsNotRolledUp(@Param("epoch") LocalDateTime epoch,
+                                                 @Param("backfilled") boolean backfilled, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update OrderEvent e set e.rolledUpAt = :rolledUpAt where e.id in :ids")
+    int markRolledUp(@Param("ids") Collection<Long> ids, @Param("rolledUpAt") LocalDateTime rolledUpAt);
+
+    /** Marks the events of a backfilled id range; the backfill read the items' current state instead. */
+    @Modifying
+    @Transactional
+    @Query("update OrderEvent e set e.rolledUpAt = :rolledUpAt where e.rolledUpAt is null and e.orderItemId in " +
+            "(select oi.id from OrderItem oi where oi.id >= :firstId and oi.id < :endId and oi.createdAt < :before)")
+    int markBackfilled(@Param("firstId") Long firstId, @Param("endId") Long endId,
+                       @Param("before") LocalDateTime before, @Param("rolledUpAt") LocalDateTime rolledUpAt);
+
+    /**
+     * Retention cleanup. Events not yet in the sales rollups are kept however old they are, except
+     * those of items ordered before the epoch: the rollup backfill reads those items' current state.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from OrderEvent e where e.publishedAt < :cutoff and (e.rolledUpAt is not null or exists " +
+            "(select oi.id from OrderItem oi, SalesRollupState s where oi.id = e.orderItemId and oi.createdAt < s.epoch))")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,11 +1,85 @@
 package Ecommerce.Ecommerce.repository;
 
+import Ecommerce.Ecommerce.dto.OrderHistoryRow;
+import Ecommerce.Ecommerce.dto.OrderHistorySummaryDto;
+import Ecommerce.Ecommerce.dto.OrderItemStatusRow;
+import Ecommerce.Ecommerce.dto.OrderStatusCountRow;
+import Ecommerce.Ecommerce.dto.SalesItemRow;
 import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface OrderItemRepo extends JpaRepository<OrderItem, Long>, JpaSpecificationExecutor<OrderItem> {
 
+    /** A user's order history, newest first, seeking past {@code beforeId}; served by the (user_id, id) index. */
+    @Query("select new Ecommerce.Ecommerce.dto.OrderHistoryRow(oi.id, oi.quantity, oi.price, oi.status, oi.createdAt, " +
+            "p.id, p.name, p.imageUrl, p.thumbnailUrl) " +
+            "from OrderItem oi left join oi.product p " +
+            "where oi.user.id = :userId and oi.id < :beforeId order by oi.id desc")
+    List<OrderHistoryRow> findOrderHistory(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+
+    /** Units of a product ordered since {@code since} that still hold stock (not cancelled or returned). */
+    @Query("select coalesce(sum(oi.quantity), 0) from OrderItem oi " +
+            "where oi.product.id = :productId and oi.createdAt >= :since " +
+            "and oi.status not in (Ecommerce.Ecommerce.enums.OrderStatus.CANCELLED, Ecommerce.Ecommerce.enums.OrderStatus.RETURNED)")
+    long sumHeldQuantitySince(@Param("productId") Long productId, @Param("since") LocalDateTime since);
+
+    /** Order items per status in one pass; seeds the in-memory status counters at startup. */
+    @Query("select new Ecommerce.Ecommerce.dto.OrderStatusCountRow(oi.status, count(oi)) from OrderItem oi group by oi.status")
+    List<OrderStatusCountRow> countByStatus();
+
+    /** Reads one order item under its row lock, so concurrent status changes to it run one after another. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select oi from OrderItem oi where oi.id = :id")
+    Optional<OrderItem> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Locks a chunk of order items for a bulk status change and reads what it needs to adjust stock.
+     * The {@code .id} paths read foreign keys, so only order_items rows are locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new Ecommerce.Ecommerce.dto.OrderItemStatusRow(oi.id, oi.order.id, oi.user.id, oi.product.id, oi.quantity, oi.status) " +
+            "from OrderItem oi where oi.id in :ids")
+    List<OrderItemStatusRow> lockStatusRows(@Param("ids") Collection<Long> ids);
+
+    /** Set-based status change; rows already in the target status are not counted as affected. */
+    @Modifying
+    @Transactional
+    @Query("update OrderItem oi set oi.status = :status where oi.id in :ids and oi.status <> :status")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    /** Highest id of an item ordered before {@code before}; bounds the sales rollup backfill. */
+    @Query("select coalesce(max(oi.id), 0) from OrderItem oi where oi.createdAt < :before")
+    long maxIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Locks the items of one backfill range that were ordered before {@code before}, so none of
+     * them can change status until the range's rollups and event marks commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new Ecommerce.Ecommerce.dto.SalesItemRow(oi.id, oi.product.id, oi.quantity, oi.price, oi.status, oi.createdAt) " +
+            "from OrderItem oi where oi.id >= :firstId and oi.id < :endId and oi.createdAt < :before")
+    List<SalesItemRow> lockSalesRows(@Param("firstId") Long firstId, @Param("endId") Long endId,
+                                     @Param("before") LocalDateTime before);
+
+    @Query("select new Ecommerce.Ecommerce.dto.OrderHistorySummaryDto(count(oi), " +
+            "coalesce(sum(case when oi.status not in (Ecommerce.Ecommerce.enums.OrderStatus.CANCELLED, " +
+            "Ecommerce.Ecommerce.enums.OrderStatus.RETURNED) then oi.price end), 0), max(oi.createdAt)) " +
+            "from OrderItem oi where oi.user.id = :userId")
+    OrderHistorySummaryDto summarizeOrderHistory(@Param("userId") Long userId);
 }
 /*
 What is JpaSpecificationExecutor?
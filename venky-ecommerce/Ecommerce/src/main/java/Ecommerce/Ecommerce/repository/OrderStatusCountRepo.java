@@ -0,0 +1,7 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.entity.OrderStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OrderStatusCountRepo extends JpaRepository<OrderStatusCount, String> {
+}
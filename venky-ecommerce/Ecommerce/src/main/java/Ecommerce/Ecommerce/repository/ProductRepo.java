@@ -1,12 +1,79 @@
 package Ecommerce.Ecommerce.repository;
 
+import Ecommerce.Ecommerce.dto.ProductCategoryRow;
 import Ecommerce.Ecommerce.entity.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepo extends JpaRepository<Product, Long> {
     List<Product> findByCategoryId(Long categoryId);
     List<Product> findByNameContainingOrDescriptionContaining(String name, String description);
-}
 
+    /** First keyset page: newest products, bounded by LIMIT (no OFFSET). */
+    List<Product> findAllByOrderByIdDesc(Limit limit);
+
+    /** Following keyset pages: seeks past the last id of the previous page. */
+    List<Product> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    /**
+     * Takes {@code quantity} units in one conditional UPDATE, so concurrent orders only contend on
+     * the product's row lock and can never drive stock below zero. Untracked (null) stock always succeeds.
+     * Returns 0 when there is not enough stock (or the product is gone).
+     */
+    @Modifying
+    @Transactional
+    @Query("update Product p set p.stock = p.stock - :quantity " +
+            "where p.id = :id and (p.stock is null or p.stock >= :quantity)")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /** Returns {@code quantity} units to a tracked product, e.g. when an order item is cancelled. */
+    @Modifying
+    @Transactional
+    @Query("update Product p set p.stock = p.stock + :quantity where p.id = :id and p.stock is not null")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /** Applies a flash sale's write-behind: subtracts units already sold from in-memory counters. */
+    @Modifying
+    @Transactional
+    @Query("update Product p set p.stock = p.stock - :sold where p.id = :id and p.stock is not null")
+    int applySoldUnits(@Param("id") Long id, @Param("sold") long sold);
+
+    /** Sets an absolute stock level (admin restock or correction); null stops tracking. */
+    @Modifying
+    @Transactional
+    @Query("update Product p set p.stock = :stock where p.id = :id")
+    int updateStock(@Param("id") Long id, @Param("stock") Integer stock);
+
+    /** Reads a product under its row lock, so no order can change its stock until the caller commits. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    /** Category of each product, without loading the products; reads the foreign key only. */
+    @Query("select new Ecommerce.Ecommerce.dto.ProductCategoryRow(p.id, p.category.id) from Product p where p.id in :ids")
+    List<ProductCategoryRow> findCategoryIds(@Param("ids") Collection<Long> ids);
+
+    /** Products whose image renditions have not been produced yet. */
+    List<Product> findByThumbnailUrlIsNullAndImageUrlIsNotNull(Limit limit);
+
+    /** Stores renditions only if the product still has the image they were made from. */
+    @Modifying
+    @Transactional
+    @Query("update Product p set p.thumbnailUrl = :thumbnailUrl, p.cardUrl = :cardUrl, p.detailUrl = :detailUrl " +
+            "where p.id = :id and p.imageUrl = :sourceUrl")
+    int updateRenditions(@Param("id") Long id,
+                         @Param("sourceUrl") String sourceUrl,
+                         @Param("thumbnailUrl") String thumbnailUrl,
+                         @Param("cardUrl") String cardUrl,
+                         @Param("detailUrl") String detailUrl);
+}
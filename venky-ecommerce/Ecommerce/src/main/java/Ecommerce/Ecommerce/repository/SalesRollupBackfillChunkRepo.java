@@ -0,0 +1,13 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.entity.SalesRollupBackfillChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Set;
+
+public interface SalesRollupBackfillChunkRepo extends JpaRepository<SalesRollupBackfillChunk, Long> {
+
+    @Query("select c.firstId from SalesRollupBackfillChunk c")
+    Set<Long> findCompletedFirstIds();
+}
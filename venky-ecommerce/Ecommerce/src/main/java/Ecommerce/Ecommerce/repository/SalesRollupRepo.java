@@ -0,0 +1,37 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.dto.SalesRollupDto;
+import Ecommerce.Ecommerce.entity.SalesRollup;
+import Ecommerce.Ecommerce.enums.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Chart reads over the rollups. All of them are range scans on the primary key
+ * (granularity, bucket_start, product_id) or the (product_id, granularity, bucket_start) index.
+ */
+public interface SalesRollupRepo extends JpaRepository<SalesRollup, SalesRollup.Key> {
+
+    @Query("select new Ecommerce.Ecommerce.dto.SalesRollupDto(r.bucketStart, null, null, sum(r.orderItems), sum(r.units), sum(r.revenue)) " +
+            "from SalesRollup r where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to " +
+            "group by r.bucketStart order by r.bucketStart")
+    List<SalesRollupDto> sumByBucket(@Param("granularity") RollupGranularity granularity,
+                                     @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new Ecommerce.Ecommerce.dto.SalesRollupDto(r.bucketStart, null, r.categoryId, sum(r.orderItems), sum(r.units), sum(r.revenue)) " +
+            "from SalesRollup r where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to " +
+            "group by r.bucketStart, r.categoryId order by r.bucketStart, r.categoryId")
+    List<SalesRollupDto> sumByBucketAndCategory(@Param("granularity") RollupGranularity granularity,
+                                                @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new Ecommerce.Ecommerce.dto.SalesRollupDto(r.bucketStart, r.productId, r.categoryId, r.orderItems, r.units, r.revenue) " +
+            "from SalesRollup r where r.productId = :productId and r.granularity = :granularity " +
+            "and r.bucketStart >= :from and r.bucketStart < :to order by r.bucketStart")
+    List<SalesRollupDto> findProductSeries(@Param("productId") Long productId,
+                                           @Param("granularity") RollupGranularity granularity,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
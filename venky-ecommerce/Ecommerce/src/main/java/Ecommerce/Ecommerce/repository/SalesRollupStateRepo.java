@@ -0,0 +1,7 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.entity.SalesRollupState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SalesRollupStateRepo extends JpaRepository<SalesRollupState, Integer> {
+}
@@ -2,12 +2,14 @@ package Ecommerce.Ecommerce.repository;
 
 
 import Ecommerce.Ecommerce.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
 public interface UserRepo extends JpaRepository<User, Long> {
 
+    @EntityGraph(attributePaths = "address")
     Optional<User> findByEmail(String email);
 }
 
@@ -0,0 +1,382 @@
+package Ecommerce.Ecommerce.search;
+
+import Ecommerce.Ecommerce.dto.ProductDto;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over product name and description.
+ * <p>
+ * Every product gets an internal int ordinal; each term maps to a posting list of
+ * ordinals plus field-weighted term frequencies held in plain int arrays. Updates
+ * tombstone the old ordinal and append a new one, and the index compacts itself
+ * once tombstones outnumber live documents.
+ * <p>
+ * Only the searchable fields are kept: stock changes on every order and is never
+ * indexed, so results carry no stock and callers that need it read it per product.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int BUILD_PAGE_SIZE = 1000;
+    private static final int MIN_DELETED_FOR_COMPACTION = 10_000;
+
+    private final ProductRepo productRepo;
+    private final EntityDtoMapper entityDtoMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index current = new Index();
+    // updates that arrive while a rebuild scans the database, replayed onto the new index before the swap
+    private List<Consumer<Index>> changesDuringBuild;
+    private volatile boolean ready;
+
+    /**
+     * Builds the index from the database once the application has started. The scan
+     * fills a fresh index without holding the lock, so searches keep being served from
+     * the current one; the write lock is only taken to swap the new index in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        long start = System.currentTimeMillis();
+        withWriteLock(() -> changesDuringBuild = new ArrayList<>());
+        Index rebuilt = new Index();
+        try {
+            List<Product> page = productRepo.findAllByOrderByIdDesc(Limit.of(BUILD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                for (Product product : page) {
+                    rebuilt.add(searchable(entityDtoMapper.mapProductToDtoBasic(product)));
+                }
+                Long lastId = page.get(page.size() - 1).getId();
+                page = productRepo.findByIdLessThanOrderByIdDesc(lastId, Limit.of(BUILD_PAGE_SIZE));
+            }
+            withWriteLock(() -> {
+                changesDuringBuild.forEach(change -> change.accept(rebuilt));
+                current = rebuilt;
+                ready = true;
+            });
+        } finally {
+            withWriteLock(() -> changesDuringBuild = null);
+        }
+        log.info("Product search index built: {} products, {} terms in {} ms",
+                rebuilt.ordinalByProductId.size(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /** False until the startup build has finished; callers should fall back to the database. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Adds a product, or replaces the indexed copy if the product is already present. */
+    public void index(ProductDto product) {
+        ProductDto document = searchable(product);
+        apply(index -> index.replace(document));
+    }
+
+    public void remove(Long productId) {
+        apply(index -> index.remove(productId));
+    }
+
+    /**
+     * Returns products matching every query token (exact term or term prefix),
+     * highest score first. Name hits outweigh description hits and rare terms
+     * outweigh common ones. Each call returns its own copies, without stock.
+     */
+    public List<ProductDto> search(String query) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            ScoredDocs matches = null;
+            for (String token : tokens) {
+                ScoredDocs tokenMatches = current.collect(token);
+                matches = matches == null ? tokenMatches : matches.intersect(tokenMatches);
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            return matches.toRankedList(current.documents);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ordinals handed out since the last build or compaction, live and tombstoned. */
+    int ordinalCount() {
+        lock.readLock().lock();
+        try {
+            return current.documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void apply(Consumer<Index> change) {
+        withWriteLock(() -> {
+            change.accept(current);
+            if (changesDuringBuild != null) {
+                changesDuringBuild.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Copy of the fields the index ranks and returns; stock is deliberately left out. */
+    private static ProductDto searchable(ProductDto product) {
+        ProductDto copy = new ProductDto();
+        copy.setId(product.getId());
+        copy.setName(product.getName());
+        copy.setDescription(product.getDescription());
+        copy.setPrice(product.getPrice());
+        copy.setImageUrl(product.getImageUrl());
+        copy.setThumbnailUrl(product.getThumbnailUrl());
+        copy.setCardUrl(product.getCardUrl());
+        copy.setDetailUrl(product.getDetailUrl());
+        copy.setCategory(product.getCategory());
+        return copy;
+    }
+
+    /** Postings, ordinals and documents of one generation of the index; guarded by the outer lock once published. */
+    private static final class Index {
+        private final TreeMap<String, PostingList> postings = new TreeMap<>();
+        private final Map<Long, Integer> ordinalByProductId = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+        private ProductDto[] documents = new ProductDto[1024];
+        private int documentCount;
+
+        void replace(ProductDto product) {
+            markDeleted(product.getId());
+            add(product);
+            compactIfNeeded();
+        }
+
+        void remove(Long productId) {
+            markDeleted(productId);
+            compactIfNeeded();
+        }
+
+        ScoredDocs collect(String token) {
+            SortedMap<String, PostingList> range = postings.subMap(token, token + Character.MAX_VALUE);
+            int liveDocuments = ordinalByProductId.size();
+            ScoredDocs result = new ScoredDocs(16);
+            for (Map.Entry<String, PostingList> entry : range.entrySet()) {
+                PostingList list = entry.getValue();
+                float idf = (float) Math.log(1.0 + (double) liveDocuments / list.size);
+                float factor = entry.getKey().length() == token.length() ? 1f : PREFIX_MATCH_FACTOR;
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (!deleted.get(doc)) {
+                        result.add(doc, list.weights[i] * idf * factor);
+                    }
+                }
+            }
+            if (range.size() > 1) {
+                result.sortAndMerge();
+            }
+            return result;
+        }
+
+        void add(ProductDto product) {
+            int ordinal = documentCount++;
+            if (ordinal == documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+            documents[ordinal] = product;
+            ordinalByProductId.put(product.getId(), ordinal);
+            addTerms(product.getName(), ordinal, NAME_WEIGHT);
+            addTerms(product.getDescription(), ordinal, DESCRIPTION_WEIGHT);
+        }
+
+        private void addTerms(String text, int ordinal, int weight) {
+            for (String term : tokenize(text)) {
+                postings.computeIfAbsent(term, t -> new PostingList()).add(ordinal, weight);
+            }
+        }
+
+        private void markDeleted(Long productId) {
+            Integer ordinal = ordinalByProductId.remove(productId);
+            if (ordinal != null) {
+                deleted.set(ordinal);
+                documents[ordinal] = null;
+            }
+        }
+
+        private void compactIfNeeded() {
+            int deletedCount = deleted.cardinality();
+            if (deletedCount < MIN_DELETED_FOR_COMPACTION || deletedCount < ordinalByProductId.size()) {
+                return;
+            }
+            List<ProductDto> live = new ArrayList<>(ordinalByProductId.size());
+            for (int i = 0; i < documentCount; i++) {
+                if (!deleted.get(i)) {
+                    live.add(documents[i]);
+                }
+            }
+            postings.clear();
+            ordinalByProductId.clear();
+            deleted.clear();
+            documents = new ProductDto[1024];
+            documentCount = 0;
+            live.forEach(this::add);
+            log.info("Product search index compacted: {} live products", live.size());
+        }
+    }
+
+    /** Ordinals in ascending order with their accumulated weights. */
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void add(int doc, int weight) {
+            if (size > 0 && docs[size - 1] == doc) {
+                weights[size - 1] += weight;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+
+    /** Candidate ordinals with scores, kept sorted by ordinal so token results can be merge-intersected. */
+    private static final class ScoredDocs {
+        private int[] docs;
+        private float[] scores;
+        private int size;
+
+        ScoredDocs(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        void add(int doc, float score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        /** Sorts by ordinal and sums the scores of ordinals hit by several prefix terms. */
+        void sortAndMerge() {
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = ((long) docs[i] << 32) | i;
+            }
+            Arrays.sort(packed);
+            int[] mergedDocs = new int[size];
+            float[] mergedScores = new float[size];
+            int merged = 0;
+            for (long entry : packed) {
+                int doc = (int) (entry >>> 32);
+                float score = scores[(int) entry];
+                if (merged > 0 && mergedDocs[merged - 1] == doc) {
+                    mergedScores[merged - 1] += score;
+                } else {
+                    mergedDocs[merged] = doc;
+                    mergedScores[merged] = score;
+                    merged++;
+                }
+            }
+            docs = mergedDocs;
+            scores = mergedScores;
+            size = merged;
+        }
+
+        ScoredDocs intersect(ScoredDocs other) {
+            ScoredDocs result = new ScoredDocs(Math.max(1, Math.min(size, other.size)));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    result.add(docs[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        List<ProductDto> toRankedList(ProductDto[] documents) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // highest score first; newer products (higher ordinal) win ties
+            Arrays.sort(order, (a, b) -> {
+                int byScore = Float.compare(scores[b], scores[a]);
+                return byScore != 0 ? byScore : Integer.compare(docs[b], docs[a]);
+            });
+            List<ProductDto> ranked = new ArrayList<>(size);
+            for (Integer index : order) {
+                ranked.add(searchable(documents[docs[index]]));
+            }
+            return ranked;
+        }
+    }
+}
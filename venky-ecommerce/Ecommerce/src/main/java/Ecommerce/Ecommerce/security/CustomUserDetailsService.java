@@ -4,27 +4,55 @@ package Ecommerce.Ecommerce.security;
 import Ecommerce.Ecommerce.entity.User;
 import Ecommerce.Ecommerce.exception.NotFoundException;
 import Ecommerce.Ecommerce.repository.UserRepo;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepo userRepo;
-    @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        User user = userRepo.findByEmail(username)
-                .orElseThrow(()-> new NotFoundException("User/ Email Not found"));
+    // short-lived so role or address changes made elsewhere are picked up quickly; evicted on every user save
+    private final Cache<String, AuthUser> userDetailsCache;
 
-        return AuthUser.builder()
-                .user(user)
+    public CustomUserDetailsService(UserRepo userRepo,
+                                    @Value("${user-details.cache.ttl-seconds:60}") long ttlSeconds,
+                                    @Value("${user-details.cache.max-size:10000}") long maxSize) {
+        this.userRepo = userRepo;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
                 .build();
     }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (username == null) {
+            throw new NotFoundException("User/ Email Not found");
+        }
+        return userDetailsCache.get(username, email -> {
+            User user = userRepo.findByEmail(email)
+                    .orElseThrow(()-> new NotFoundException("User/ Email Not found"));
+
+            return AuthUser.builder()
+                    .user(user)
+                    .build();
+        });
+    }
+
+    /** Drops the cached details for a user; call after saving the user or anything cached with it. */
+    public void evict(String email) {
+        if (email != null) {
+            userDetailsCache.invalidate(email);
+        }
+    }
 }
 /*
 @Service → Marks this class as a Spring service (a class that contains business logic and can be managed by Spring).
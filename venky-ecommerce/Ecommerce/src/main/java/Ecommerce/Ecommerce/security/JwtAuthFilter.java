@@ -1,6 +1,7 @@
 package Ecommerce.Ecommerce.security;
 
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,11 +35,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
 
         if (token != null){
-            String username = jwtUtils.getUsernameFromToken(token);
+            // verified once per token, then served from JwtUtils' claims cache until it expires
+            Claims claims = jwtUtils.getVerifiedClaims(token);
+            String username = claims.getSubject();
 
             UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
 
-            if (StringUtils.hasText(username) && jwtUtils.isTokenValid(token, userDetails)){
+            if (StringUtils.hasText(username) && jwtUtils.isTokenValid(claims, userDetails)){
                 log.info("VALID JWT FOR {}", username);
 
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
@@ -33,7 +33,8 @@
                                     "/auth/**",
                                     "/category/**",
                                     "/product/**",
-                                    "/order/**"
+                                    "/order/**",
+                                    "/images/**"
 
                             ).permitAll()
                             .anyRequest().authenticated()
@@ -1,11 +1,7 @@
 package Ecommerce.Ecommerce.service;
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
-import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.regions.Regions;
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
-import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.PutObjectRequest;
+import Ecommerce.Ecommerce.service.image.ImageStore;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -13,49 +9,103 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 @Service
 @Slf4j
 public class AwsS3Service {
 
-    private final String bucketName = "ecomm-venkiyyy";
+    private static final String KEY_PREFIX = "images/sha256/";
 
-    @Value("${aws.s3.access}")
-    private String awsS3AccessKey;
-    @Value("${aws.s3.secrete}")
-    private String awsS3SecreteKey;
+    // S3 by default, local filesystem when image.store=local
+    private final ImageStore imageStore;
 
+    // content hash -> stored URL; concurrent uploads of the same bytes share one lookup/PUT
+    private final AsyncCache<String, String> uploadedImages;
 
-    public String saveImageToS3(MultipartFile photo){
-        try {
-            String s3FileName = photo.getOriginalFilename();
-            //create aes credentials using the access and secrete key
-            BasicAWSCredentials awsCredentials = new BasicAWSCredentials(awsS3AccessKey, awsS3SecreteKey);
-
-            //create an s3 client with config credentials and region
-            AmazonS3 s3Client = AmazonS3ClientBuilder.standard()
-                    .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
-                    .withRegion(Regions.US_EAST_1)
-                    .build();
+    public AwsS3Service(ImageStore imageStore,
+                        @Value("${image.dedup-index.max-size:100000}") long indexMaxSize) {
+        this.imageStore = imageStore;
+        this.uploadedImages = Caffeine.newBuilder()
+                .maximumSize(indexMaxSize)
+                .buildAsync();
+    }
 
-            //get input stream from photo
-            InputStream inputStream = photo.getInputStream();
 
-            //set metedata for the onject
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentType("image/jpg");
+    /**
+     * Stores the image under a content address ({@code images/sha256/<hash>.<ext>}), so identical
+     * uploads map to one object and different files with the same name no longer overwrite each other.
+     * Images already in the store are not uploaded again.
+     */
+    public String saveImageToS3(MultipartFile photo){
+        String contentType = photo.getContentType() != null ? photo.getContentType() : "image/jpeg";
 
-            //create a put request to upload the image to s3
-            PutObjectRequest putObjectRequest = new PutObjectRequest(bucketName, s3FileName, inputStream, metadata);
-            s3Client.putObject(putObjectRequest);
+        try {
+            String key = KEY_PREFIX + sha256(photo) + extensionOf(photo.getOriginalFilename());
+
+            CompletableFuture<String> upload = new CompletableFuture<>();
+            CompletableFuture<String> existing = uploadedImages.asMap().putIfAbsent(key, upload);
+            if (existing != null) {
+                return existing.join();
+            }
+            try {
+                String url = imageStore.find(key);
+                if (url == null) {
+                    //stream the upload with its known length so nothing is buffered in memory
+                    try (InputStream inputStream = photo.getInputStream()) {
+                        url = imageStore.store(key, inputStream, photo.getSize(), contentType);
+                    }
+                } else {
+                    log.debug("Image {} already stored, skipping upload", key);
+                }
+                upload.complete(url);
+                return url;
+            } catch (IOException | RuntimeException e) {
+                uploadedImages.asMap().remove(key, upload);
+                upload.completeExceptionally(e);
+                throw e;
+            }
+        }catch (IOException e){
+            log.error("Unable to read uploaded image {}", photo.getOriginalFilename(), e);
+            throw new RuntimeException("Unable to upload image to s3 bucket: " + e.getMessage(), e);
+        }catch (CompletionException e){
+            // a concurrent upload of the same image failed; that caller has already logged it
+            throw new RuntimeException("Unable to upload image to s3 bucket: " + e.getCause().getMessage(), e.getCause());
+        }catch (RuntimeException e){
+            log.error("Unable to upload image {}", photo.getOriginalFilename(), e);
+            throw e;
+        }
+    }
 
-            return "https://" + bucketName + ".s3.us-east-1.amazonaws.com/" + s3FileName;
+    private static String sha256(MultipartFile photo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        // multipart uploads are already spooled locally, so this pass costs no network transfer
+        try (InputStream inputStream = new DigestInputStream(photo.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-        }catch (IOException e){
-            e.printStackTrace();
-            throw new RuntimeException("Unable to upload image to s3 bucket: " + e.getMessage());
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
         }
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return extension.matches("[a-z0-9]{1,5}") ? "." + extension : "";
     }
 }
 /*
@@ -0,0 +1,260 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.FlashSaleDto;
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.entity.FlashSale;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import Ecommerce.Ecommerce.repository.FlashSaleRepo;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in flash-sale mode for a handful of hot products. While a sale runs, the product's
+ * available units live in an in-memory counter that orders decrement with a CAS loop, so
+ * checkout never waits on the product row and a sold-out request is rejected without any
+ * database access. Units sold are written back to {@code products.stock} in batches, as the
+ * difference between the counter and the row's stock when the sale took it over, so a
+ * reservation racing a flush or the end of the sale is never lost.
+ *
+ * <p>After a crash the unflushed units are lost from memory, so on startup each running sale
+ * is rebuilt from its starting stock minus the units its order items still hold.
+ * Start a sale before the promotion opens: orders already past the stock check when it
+ * starts are not seen by the counter.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FlashSaleService {
+
+    // counter value while a sale is starting or after it has ended: reservations go to the row
+    private static final long CLOSED = -1;
+
+    private final FlashSaleRepo flashSaleRepo;
+    private final ProductRepo productRepo;
+    private final OrderItemRepo orderItemRepo;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    /** Rebuilds counters for sales that were running when the application stopped. */
+    @PostConstruct
+    public void reconcile() {
+        for (FlashSale sale : flashSaleRepo.findAll()) {
+            long held = orderItemRepo.sumHeldQuantitySince(sale.getProductId(), sale.getStartedAt());
+            long available = Math.max(0, sale.getInitialStock() - held);
+            // the counter is the source of truth; make the row agree before any write-behind runs
+            productRepo.updateStock(sale.getProductId(), (int) available);
+            Counter counter = new Counter();
+            counter.open(sale, available);
+            counters.put(sale.getProductId(), counter);
+            log.info("Flash sale for product {} resumed with {} units", sale.getProductId(), available);
+        }
+    }
+
+    public boolean isActive(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    public enum Reservation { RESERVED, SOLD_OUT, NOT_IN_SALE }
+
+    /** Takes {@code quantity} units from the product's in-memory counter, if it is in a sale. */
+    public Reservation tryReserve(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return Reservation.NOT_IN_SALE;
+        }
+        AtomicLong available = counter.available;
+        long current;
+        do {
+            current = available.get();
+            if (current == CLOSED) {
+                return Reservation.NOT_IN_SALE;
+            }
+            if (current < quantity) {
+                return Reservation.SOLD_OUT;
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        return Reservation.RESERVED;
+    }
+
+    /**
+     * Gives units back to the counter (rolled-back order, cancelled or returned item).
+     * Returns false when the sale has already ended, so the caller restocks the database instead.
+     */
+    public boolean returnUnits(Long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return false;
+        }
+        AtomicLong available = counter.available;
+        long current;
+        do {
+            current = available.get();
+            if (current == CLOSED) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current + quantity));
+        return true;
+    }
+
+    /** Write-behind: pushes the units sold since the last flush to products.stock. */
+    @Scheduled(fixedDelayString = "${flash-sale.flush-interval-ms:1000}")
+    public void flush() {
+        counters.forEach(this::flush);
+    }
+
+    private void flush(Long productId, Counter counter) {
+        synchronized (counter) {
+            long available = counter.available.get();
+            if (available == CLOSED) {
+                return;
+            }
+            long sold = counter.pendingWriteBack(available);
+            if (sold == 0) {
+                return;
+            }
+            try {
+                productRepo.applySoldUnits(productId, sold);
+                counter.flushed += sold;
+            } catch (RuntimeException e) {
+                // nothing recorded as flushed, so the next attempt writes the same units
+                log.warn("Could not write back flash sale stock for product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Moves the product's stock into a counter. The row stays locked until the sale is recorded,
+     * so every order committed before the start is in the stock read and none can slip in between.
+     */
+    @Transactional
+    public Response startSale(Long productId) {
+        // claim the product first: of two concurrent starts, only one gets past this
+        Counter counter = new Counter();
+        if (counters.putIfAbsent(productId, counter) != null) {
+            throw new InvalidCredentialsException("Flash sale already running for this product");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counters.remove(productId, counter);
+                }
+            }
+        });
+
+        Product product = productRepo.findByIdForUpdate(productId).orElseThrow(() -> new NotFoundException("Product Not Found"));
+        if (product.getStock() == null) {
+            throw new InvalidCredentialsException("Product stock is not tracked");
+        }
+
+        FlashSale sale = new FlashSale();
+        sale.setProductId(productId);
+        sale.setInitialStock(product.getStock());
+        sale.setStartedAt(LocalDateTime.now());
+        flashSaleRepo.save(sale);
+        counter.open(sale, product.getStock());
+
+        return Response.builder()
+                .status(200)
+                .message("Flash sale started")
+                .flashSaleList(List.of(toDto(productId, counter)))
+                .build();
+    }
+
+    /**
+     * Closes the counter and writes back everything it sold. Reservations that arrive once it is
+     * closed go to the row, and wait on its lock until the write-back commits.
+     */
+    @Transactional
+    public Response endSale(Long productId) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            throw new NotFoundException("No flash sale running for this product");
+        }
+        synchronized (counter) {
+            // lock the row before closing, so orders falling back to it wait for the write-back
+            productRepo.findByIdForUpdate(productId);
+            long available = counter.available.getAndSet(CLOSED);
+            if (available == CLOSED) {
+                // still starting, or ended by a concurrent request
+                throw new NotFoundException("No flash sale running for this product");
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        counters.remove(productId, counter);
+                    } else {
+                        counter.available.set(available);
+                    }
+                }
+            });
+            productRepo.applySoldUnits(productId, counter.pendingWriteBack(available));
+            flashSaleRepo.deleteById(productId);
+        }
+
+        return Response.builder()
+                .status(200)
+                .message("Flash sale ended")
+                .build();
+    }
+
+    public Response getActiveSales() {
+        List<FlashSaleDto> sales = counters.entrySet().stream()
+                .filter(entry -> entry.getValue().available.get() != CLOSED)
+                .map(entry -> toDto(entry.getKey(), entry.getValue()))
+                .toList();
+        return Response.builder()
+                .status(200)
+                .flashSaleList(sales)
+                .build();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static FlashSaleDto toDto(Long productId, Counter counter) {
+        long available = counter.available.get();
+        return new FlashSaleDto(productId, counter.sale.getInitialStock(), available,
+                counter.pendingWriteBack(available), counter.sale.getStartedAt());
+    }
+
+    private static final class Counter {
+        private volatile FlashSale sale;
+        // products.stock when the counter took the product over
+        private volatile long base;
+        // units written back to products.stock since then; only changed under the counter's monitor
+        private volatile long flushed;
+        private final AtomicLong available = new AtomicLong(CLOSED);
+
+        private void open(FlashSale sale, long stock) {
+            this.sale = sale;
+            this.base = stock;
+            available.set(stock);
+        }
+
+        /** Units sold (or returned, if negative) that products.stock does not reflect yet. */
+        private long pendingWriteBack(long available) {
+            return base - available - flushed;
+        }
+    }
+}
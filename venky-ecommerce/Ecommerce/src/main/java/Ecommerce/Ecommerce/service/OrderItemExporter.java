@@ -0,0 +1,189 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.OrderItemExportRow;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.specification.OrderItemSpecification;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes every order item matching the admin filters as CSV or NDJSON, one row at a time.
+ * Rows come from a forward-only cursor and go straight to the output, so heap use does not
+ * grow with the size of the export. The default fetch size of {@link Integer#MIN_VALUE} makes
+ * MySQL Connector/J stream rows instead of buffering the whole result; other drivers take a
+ * positive {@code order.export.fetch-size}.
+ */
+@Component
+@Slf4j
+public class OrderItemExporter {
+
+    private static final String CSV_HEADER =
+            "id,order_id,created_at,status,quantity,price,product_id,product_name,user_id,user_name,user_email";
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public OrderItemExporter(ObjectMapper objectMapper,
+                             @Value("${order.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Unknown export format: " + format);
+        }
+    }
+
+    /**
+     * Streams the matching items, oldest first, to {@code out} and returns how many were written.
+     * The transaction only keeps the cursor open; nothing is written to the database.
+     */
+    @Transactional(readOnly = true)
+    public long export(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId,
+                       Format format, OutputStream out) throws IOException {
+        Specification<OrderItem> spec = OrderItemSpecification.matches(status, startDate, endDate, itemId);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long written = 0;
+        try (Stream<OrderItemExportRow> rows = streamRows(spec)) {
+            RowWriter rowWriter = format == Format.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+            for (OrderItemExportRow row : (Iterable<OrderItemExportRow>) rows::iterator) {
+                rowWriter.write(row);
+                written++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} order items as {}", written, format);
+        return written;
+    }
+
+    private Stream<OrderItemExportRow> streamRows(Specification<OrderItem> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderItemExportRow> query = cb.createQuery(OrderItemExportRow.class);
+        Root<OrderItem> root = query.from(OrderItem.class);
+        Join<Object, Object> product = root.join("product", JoinType.LEFT);
+        Join<Object, Object> user = root.join("user", JoinType.LEFT);
+        query.select(cb.construct(OrderItemExportRow.class,
+                root.get("id"), root.get("order").get("id"), root.get("createdAt"), root.get("status"),
+                root.get("quantity"), root.get("price"), product.get("id"), product.get("name"),
+                user.get("id"), user.get("name"), user.get("email")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private interface RowWriter {
+        void write(OrderItemExportRow row);
+    }
+
+    private static RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        return row -> {
+            try {
+                writer.write(row.id() + "," + nullToEmpty(row.orderId()) + "," + nullToEmpty(row.createdAt()) + ","
+                        + nullToEmpty(row.status()) + "," + row.quantity() + "," + (row.price() == null ? "" : row.price().toPlainString()) + ","
+                        + nullToEmpty(row.productId()) + "," + csvField(row.productName()) + ","
+                        + nullToEmpty(row.userId()) + "," + csvField(row.userName()) + "," + csvField(row.userEmail()));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        // one document per line; rows collect in the buffered writer, which export() flushes at the end
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+        return row -> {
+            try {
+                objectMapper.writeValue(generator, row);
+                generator.writeRaw('\n');
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling embedded quotes
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,209 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.OrderPipelineStatsDto;
+import Ecommerce.Ecommerce.dto.OrderRequest;
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.entity.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional group commit for order placement ({@code order.pipeline.enabled=true}). Orders are
+ * queued and a single writer thread drains them in micro-batches of up to
+ * {@code order.pipeline.batch-size}, waiting at most {@code order.pipeline.max-wait-ms} for a
+ * batch to fill. Each batch commits in one transaction; every order runs under its own savepoint,
+ * so a rejected order (out of stock, unknown product) only rolls back itself and its caller gets
+ * its own result. If the shared commit fails, the batch is retried one order per transaction.
+ *
+ * <p>Disabled, or when the queue is full, orders are written directly on the caller's thread.
+ */
+@Service
+@Slf4j
+public class OrderPlacementPipeline {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final OrderWriter orderWriter;
+    private final TransactionTemplate orderTransaction;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final int queueCapacity;
+    private final BlockingQueue<PendingOrder> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong orders = new AtomicLong();
+    private final AtomicLong fallbackBatches = new AtomicLong();
+    private final AtomicLong totalBatchNanos = new AtomicLong();
+    private final AtomicLong lastBatchNanos = new AtomicLong();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+
+    public OrderPlacementPipeline(OrderWriter orderWriter,
+                                  PlatformTransactionManager transactionManager,
+                                  EntityManager entityManager,
+                                  @Value("${order.pipeline.enabled:false}") boolean enabled,
+                                  @Value("${order.pipeline.batch-size:50}") int batchSize,
+                                  @Value("${order.pipeline.max-wait-ms:5}") long maxWaitMillis,
+                                  @Value("${order.pipeline.queue-capacity:1000}") int queueCapacity) {
+        this.orderWriter = orderWriter;
+        this.orderTransaction = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::drain, "order-writer");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    /**
+     * Writes the order and returns its result, waiting for the batch it was queued in to commit.
+     * Failures are rethrown on the caller's thread as if the order had been written directly.
+     */
+    public Response place(User user, OrderRequest orderRequest, Map<Long, Integer> quantitiesByProductId) {
+        PendingOrder order = new PendingOrder(user, orderRequest, quantitiesByProductId, new CompletableFuture<>());
+        if (!enabled || !running || !queue.offer(order)) {
+            return orderTransaction.execute(status -> write(order));
+        }
+        try {
+            return order.result().join();
+        } catch (CompletionException e) {
+            // surface the original failure so it maps to the same HTTP status
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public OrderPipelineStatsDto stats() {
+        long batchCount = batches.get();
+        return new OrderPipelineStatsDto(enabled, queue.size(), queueCapacity, batchSize,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos), batchCount, orders.get(), fallbackBatches.get(),
+                batchCount == 0 ? 0 : (double) orders.get() / batchCount,
+                batchCount == 0 ? 0 : toMillis(totalBatchNanos.get()) / batchCount,
+                toMillis(lastBatchNanos.get()), toMillis(maxBatchNanos.get()));
+    }
+
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        // keep going after shutdown starts until every queued caller has its answer
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    PendingOrder next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(order -> order.result().completeExceptionally(e));
+                return;
+            } catch (RuntimeException e) {
+                // never let the writer die; callers still waiting get the failure
+                log.error("Order batch failed", e);
+                batch.forEach(order -> order.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingOrder> batch) {
+        long started = System.nanoTime();
+        List<Runnable> completions = new ArrayList<>(batch.size());
+        try {
+            orderTransaction.executeWithoutResult(status -> {
+                // JPA has no nested transactions, so take the savepoints on the JDBC connection itself
+                Session session = entityManager.unwrap(Session.class);
+                for (PendingOrder order : batch) {
+                    Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+                    try {
+                        Response response = write(order);
+                        session.doWork(connection -> connection.releaseSavepoint(savepoint));
+                        completions.add(() -> order.result().complete(response));
+                    } catch (RuntimeException e) {
+                        session.doWork(connection -> connection.rollback(savepoint));
+                        completions.add(() -> order.result().completeExceptionally(e));
+                    }
+                }
+            });
+            // callers only hear back once their order is durable
+            completions.forEach(Runnable::run);
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} orders could not commit, retrying them one at a time: {}", batch.size(), e.getMessage());
+            fallbackBatches.incrementAndGet();
+            for (PendingOrder order : batch) {
+                try {
+                    order.result().complete(orderTransaction.execute(status -> write(order)));
+                } catch (RuntimeException orderFailure) {
+                    order.result().completeExceptionally(orderFailure);
+                }
+            }
+        }
+        record(batch.size(), System.nanoTime() - started);
+    }
+
+    private Response write(PendingOrder order) {
+        return orderWriter.write(order.user(), order.orderRequest(), order.quantitiesByProductId());
+    }
+
+    private void record(int size, long elapsedNanos) {
+        batches.incrementAndGet();
+        orders.addAndGet(size);
+        totalBatchNanos.addAndGet(elapsedNanos);
+        lastBatchNanos.set(elapsedNanos);
+        maxBatchNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private record PendingOrder(User user, OrderRequest orderRequest, Map<Long, Integer> quantitiesByProductId,
+                                CompletableFuture<Response> result) {
+    }
+}
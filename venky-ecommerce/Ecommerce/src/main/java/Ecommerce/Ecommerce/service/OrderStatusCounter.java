@@ -0,0 +1,124 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.OrderStatusCountRow;
+import Ecommerce.Ecommerce.entity.OrderStatusCount;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
+import Ecommerce.Ecommerce.repository.OrderStatusCountRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live number of order items per status, so dashboards read a counter instead of counting
+ * order_items. Seeded from one GROUP BY at startup, then moved by every placed order and status
+ * transition once its transaction commits. A snapshot is written to order_status_counts
+ * periodically. Counts are kept per application instance, like the flash-sale counters.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderStatusCounter {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderItemRepo orderItemRepo;
+    private final OrderStatusCountRepo orderStatusCountRepo;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    @PostConstruct
+    public void reconcile() {
+        for (OrderStatus status : STATUSES) {
+            counts.set(status.ordinal(), 0);
+        }
+        for (OrderStatusCountRow row : orderItemRepo.countByStatus()) {
+            counts.set(row.status().ordinal(), row.count());
+        }
+        dirty.set(true);
+        log.info("Order status counts: {}", snapshot());
+    }
+
+    /** New order items start as PENDING. */
+    public void recordPlaced(int itemCount) {
+        afterCommit(() -> counts.addAndGet(OrderStatus.PENDING.ordinal(), itemCount));
+    }
+
+    /** Items moved from each source status (item counts) to {@code to}. */
+    public void recordTransitions(Map<OrderStatus, Long> countsByFromStatus, OrderStatus to) {
+        if (countsByFromStatus.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> countsByFromStatus.forEach((from, count) -> {
+            counts.addAndGet(from.ordinal(), -count);
+            counts.addAndGet(to.ordinal(), count);
+        }));
+    }
+
+    public Map<OrderStatus, Long> snapshot() {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            snapshot.put(status, counts.get(status.ordinal()));
+        }
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${order.status-counts.persist-interval-ms:10000}")
+    public void persist() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatusCount> rows = new ArrayList<>(STATUSES.length);
+        snapshot().forEach((status, count) -> {
+            OrderStatusCount row = new OrderStatusCount();
+            row.setStatus(status.name());
+            row.setItemCount(count);
+            row.setUpdatedAt(now);
+            rows.add(row);
+        });
+        try {
+            orderStatusCountRepo.saveAll(rows);
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            log.warn("Could not persist order status counts: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        persist();
+    }
+
+    // counters cannot roll back, so they only move once the change is committed
+    private void afterCommit(Runnable update) {
+        Runnable markDirty = () -> {
+            update.run();
+            dirty.set(true);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markDirty.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markDirty.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.OrderItemRequest;
+import Ecommerce.Ecommerce.dto.OrderRequest;
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.entity.Order;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.event.OrderEventOutbox;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import Ecommerce.Ecommerce.exception.OutOfStockException;
+import Ecommerce.Ecommerce.repository.OrderRepo;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and saves a single order. Runs inside the caller's transaction, either one of its own
+ * or a batch savepoint in {@link OrderPlacementPipeline}. Deliberately not {@code @Transactional}:
+ * failures are thrown straight to the caller, so rolling back one order never marks a whole
+ * batch transaction rollback-only.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderWriter {
+
+    private final OrderRepo orderRepo;
+    private final ProductRepo productRepo;
+    private final StockService stockService;
+    private final OrderStatusCounter orderStatusCounter;
+    private final OrderEventOutbox orderEventOutbox;
+
+    /**
+     * @param quantitiesByProductId stock still to reserve in the database; products whose
+     *                              flash-sale units were already taken are left out
+     */
+    public Response write(User user, OrderRequest orderRequest, Map<Long, Integer> quantitiesByProductId) {
+        // Fetch every product in the cart with a single SELECT ... WHERE id IN (...)
+        List<Long> productIds = orderRequest.getItems().stream()
+                .map(OrderItemRequest::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Product> productsById = productRepo.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // If any requested product does not exist, report all missing IDs at once.
+        List<Long> missingProductIds = productIds.stream()
+                .filter(productId -> !productsById.containsKey(productId))
+                .collect(Collectors.toList());
+        if (!missingProductIds.isEmpty()) {
+            throw new NotFoundException("Product Not Found: " + missingProductIds);
+        }
+
+        // Take stock for the rest of the cart up front; a shortage aborts the order and rolls back what was taken.
+        Long shortProductId = stockService.tryReserve(quantitiesByProductId);
+        if (shortProductId != null) {
+            throw new OutOfStockException("Insufficient stock for product " + shortProductId);
+        }
+
+        // Map each item in the incoming request to an OrderItem entity
+        List<OrderItem> orderItems = orderRequest.getItems().stream().map(orderItemRequest -> {
+            // Look up the already-fetched Product for this item.
+            Product product = productsById.get(orderItemRequest.getProductId());
+
+            // Create a new OrderItem entity and set its fields
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProduct(product); // associate the product
+            orderItem.setQuantity(orderItemRequest.getQuantity()); // set quantity
+
+            // Compute price = product price * quantity and set it.
+            // product.getPrice() is a BigDecimal; multiply by quantity converted to BigDecimal.
+            orderItem.setPrice(product.getPrice().multiply(BigDecimal.valueOf(orderItemRequest.getQuantity()))); // set price according to the quantity
+
+            // Initial status for a newly placed item is PENDING
+            orderItem.setStatus(OrderStatus.PENDING);
+
+            // Associate the order item with the user who placed it
+            orderItem.setUser(user);
+
+            // Return the built OrderItem for collection
+            return orderItem;
+
+        }).collect(Collectors.toList()); // collect stream result into a List<OrderItem>
+
+        // Calculate the total price for the order. Two possibilities:
+        // 1) If the request provides a non-null, positive totalPrice, use that.
+        // 2) Otherwise, sum the prices of all orderItems computed above.
+        BigDecimal totalPrice = orderRequest.getTotalPrice() != null && orderRequest.getTotalPrice().compareTo(BigDecimal.ZERO) > 0
+                ? orderRequest.getTotalPrice()
+                : orderItems.stream().map(OrderItem::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // Create a new Order entity and set its fields
+        Order order = new Order();
+        order.setOrderItemList(orderItems); // set the list of order items
+        order.setTotalPrice(totalPrice);   // set the order total price
+
+        // For each OrderItem, set its back-reference to the parent Order.
+        // This ensures the relationship is bidirectional (if your entities expect it).
+        orderItems.forEach(orderItem -> orderItem.setOrder(order));
+
+        // Persist the Order (cascading persists its OrderItems) and its outbox events. Flushing here
+        // keeps the inserts inside this order's savepoint when it is written as part of a batch.
+        orderRepo.save(order);
+        orderEventOutbox.itemsPlaced(order);
+        orderRepo.flush();
+        orderStatusCounter.recordPlaced(orderItems.size());
+
+        // Return a simple success Response DTO
+        return Response.builder()
+                .status(200)
+                .message("Order was successfully placed")
+                .build();
+
+    }
+}
@@ -0,0 +1,255 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.ProductCategoryRow;
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.dto.SalesBackfillStatusDto;
+import Ecommerce.Ecommerce.dto.SalesItemRow;
+import Ecommerce.Ecommerce.entity.SalesRollupBackfillChunk;
+import Ecommerce.Ecommerce.entity.SalesRollupState;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import Ecommerce.Ecommerce.repository.SalesRollupBackfillChunkRepo;
+import Ecommerce.Ecommerce.repository.SalesRollupStateRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-time load of the sales rollups from orders placed before the rollup epoch. The item id
+ * range is cut into chunks that run in parallel, each in its own transaction: lock the chunk's
+ * items, add their current sales to the rollups, mark their pending order events as covered and
+ * record the chunk as done. Locking first means a status change either committed before the
+ * chunk read it (and its event is marked) or happens after (and its event is rolled up later),
+ * never both. Completed chunks are skipped if the backfill is started again after a restart.
+ */
+@Component
+@Slf4j
+public class SalesRollupBackfill {
+
+    private static final Set<OrderStatus> RESTOCKED_STATUSES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.RETURNED);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OrderItemRepo orderItemRepo;
+    private final ProductRepo productRepo;
+    private final OrderEventRepo orderEventRepo;
+    private final SalesRollupStateRepo salesRollupStateRepo;
+    private final SalesRollupBackfillChunkRepo backfillChunkRepo;
+    private final SalesRollupService salesRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+
+    private volatile Run run;
+
+    public SalesRollupBackfill(OrderItemRepo orderItemRepo,
+                               ProductRepo productRepo,
+                               OrderEventRepo orderEventRepo,
+                               SalesRollupStateRepo salesRollupStateRepo,
+                               SalesRollupBackfillChunkRepo backfillChunkRepo,
+                               SalesRollupService salesRollupService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${analytics.backfill.chunk-size:2000}") int chunkSize,
+                               @Value("${analytics.backfill.threads:4}") int threads) {
+        this.orderItemRepo = orderItemRepo;
+        this.productRepo = productRepo;
+        this.orderEventRepo = orderEventRepo;
+        this.salesRollupStateRepo = salesRollupStateRepo;
+        this.backfillChunkRepo = backfillChunkRepo;
+        this.salesRollupService = salesRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    /** Starts the backfill in the background; progress is reported by {@link #getStatus()}. */
+    public synchronized Response start() {
+        if (run != null && run.running) {
+            throw new InvalidCredentialsException("Sales rollup backfill is already running");
+        }
+        SalesRollupState state = salesRollupService.getState();
+        if (state.getBackfilledAt() != null) {
+            throw new InvalidCredentialsException("Sales rollups were already backfilled at " + state.getBackfilledAt());
+        }
+
+        LocalDateTime epoch = state.getEpoch();
+        long maxId = orderItemRepo.maxIdCreatedBefore(epoch);
+        Set<Long> completed = backfillChunkRepo.findCompletedFirstIds();
+        List<Long> pending = new ArrayList<>();
+        int totalChunks = 0;
+        for (long firstId = 0; firstId <= maxId; firstId += chunkSize) {
+            totalChunks++;
+            if (!completed.contains(firstId)) {
+                pending.add(firstId);
+            }
+        }
+
+        Run started = new Run(totalChunks, totalChunks - pending.size());
+        run = started;
+        Thread coordinator = new Thread(() -> runChunks(started, epoch, pending), "sales-backfill");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        log.info("Sales rollup backfill started: {} of {} chunks to go", pending.size(), totalChunks);
+
+        return Response.builder()
+                .status(200)
+                .message("Sales rollup backfill started")
+                .salesBackfillStatus(toDto(started, state))
+                .build();
+    }
+
+    public Response getStatus() {
+        return Response.builder()
+                .status(200)
+                .salesBackfillStatus(toDto(run, salesRollupService.getState()))
+                .build();
+    }
+
+    private void runChunks(Run current, LocalDateTime epoch, List<Long> firstIds) {
+        ExecutorService workers = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("sales-backfill-", 0).daemon().factory());
+        try {
+            for (Long firstId : firstIds) {
+                workers.execute(() -> runChunk(current, firstId, epoch));
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+            if (current.failedChunks.get() == 0) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    SalesRollupState state = salesRollupService.getState();
+                    state.setBackfilledAt(LocalDateTime.now());
+                    salesRollupStateRepo.save(state);
+                });
+                log.info("Sales rollup backfill finished: {} order items", current.orderItems.get());
+            } else {
+                log.warn("Sales rollup backfill stopped with {} failed chunks; start it again to retry them",
+                        current.failedChunks.get());
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            current.lastError = e.getMessage();
+            log.error("Sales rollup backfill failed", e);
+        } finally {
+            current.finishedAt = LocalDateTime.now();
+            current.running = false;
+        }
+    }
+
+    private void runChunk(Run current, long firstId, LocalDateTime epoch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long items = transactionTemplate.execute(status -> backfillChunk(firstId, firstId + chunkSize, epoch));
+                current.orderItems.addAndGet(items);
+                current.completedChunks.incrementAndGet();
+                return;
+            } catch (ConcurrencyFailureException | DuplicateKeyException e) {
+                // lock timeout or deadlock with live orders or another chunk on a shared rollup row,
+                // or (MERGE databases) another chunk inserted the same new rollup row first
+                if (attempt < MAX_ATTEMPTS) {
+                    continue;
+                }
+                fail(current, firstId, e);
+                return;
+            } catch (RuntimeException e) {
+                fail(current, firstId, e);
+                return;
+            }
+        }
+    }
+
+    private long backfillChunk(long firstId, long endId, LocalDateTime epoch) {
+        List<SalesItemRow> rows = orderItemRepo.lockSalesRows(firstId, endId, epoch);
+        Map<Long, Long> categoryIds = categoryIds(rows);
+
+        SalesRollupService.Deltas deltas = new SalesRollupService.Deltas();
+        for (SalesItemRow row : rows) {
+            if (row.productId() != null && !RESTOCKED_STATUSES.contains(row.status())) {
+                deltas.add(row.productId(), categoryIds.get(row.productId()), row.createdAt(), 1, row.quantity(), row.price());
+            }
+        }
+        salesRollupService.apply(deltas);
+        LocalDateTime now = LocalDateTime.now();
+        orderEventRepo.markBackfilled(firstId, endId, epoch, now);
+
+        SalesRollupBackfillChunk chunk = new SalesRollupBackfillChunk();
+        chunk.setFirstId(firstId);
+        chunk.setEndId(endId);
+        chunk.setOrderItems(rows.size());
+        chunk.setCompletedAt(now);
+        backfillChunkRepo.save(chunk);
+        return rows.size();
+    }
+
+    private Map<Long, Long> categoryIds(List<SalesItemRow> rows) {
+        Map<Long, Long> categoryIds = new HashMap<>();
+        List<Long> productIds = rows.stream().map(SalesItemRow::productId).filter(id -> id != null).distinct().toList();
+        if (!productIds.isEmpty()) {
+            // not joined into the locking read, which would also lock the product rows checkout updates
+            for (ProductCategoryRow row : productRepo.findCategoryIds(productIds)) {
+                categoryIds.put(row.productId(), row.categoryId());
+            }
+        }
+        return categoryIds;
+    }
+
+    private static void fail(Run current, long firstId, RuntimeException e) {
+        current.failedChunks.incrementAndGet();
+        current.lastError = e.getMessage();
+        log.warn("Sales rollup backfill chunk starting at {} failed: {}", firstId, e.getMessage());
+    }
+
+    private static SalesBackfillStatusDto toDto(Run current, SalesRollupState state) {
+        SalesBackfillStatusDto dto = new SalesBackfillStatusDto();
+        dto.setEpoch(state.getEpoch());
+        dto.setBackfilledAt(state.getBackfilledAt());
+        if (current != null) {
+            dto.setRunning(current.running);
+            dto.setTotalChunks(current.totalChunks);
+            dto.setCompletedChunks(current.completedChunks.get());
+            dto.setFailedChunks(current.failedChunks.get());
+            dto.setOrderItems(current.orderItems.get());
+            dto.setStartedAt(current.startedAt);
+            dto.setFinishedAt(current.finishedAt);
+            dto.setLastError(current.lastError);
+        }
+        return dto;
+    }
+
+    private static final class Run {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final int totalChunks;
+        private final AtomicInteger completedChunks;
+        private final AtomicInteger failedChunks = new AtomicInteger();
+        private final AtomicLong orderItems = new AtomicLong();
+        private volatile boolean running = true;
+        private volatile LocalDateTime finishedAt;
+        private volatile String lastError;
+
+        private Run(int totalChunks, int completedChunks) {
+            this.totalChunks = totalChunks;
+            this.completedChunks = new AtomicInteger(completedChunks);
+        }
+    }
+}
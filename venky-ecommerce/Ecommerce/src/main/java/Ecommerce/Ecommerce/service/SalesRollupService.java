@@ -0,0 +1,237 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.dto.SalesEventRow;
+import Ecommerce.Ecommerce.dto.SalesRollupDto;
+import Ecommerce.Ecommerce.entity.SalesRollup;
+import Ecommerce.Ecommerce.entity.SalesRollupState;
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.enums.RollupGranularity;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import Ecommerce.Ecommerce.repository.SalesRollupRepo;
+import Ecommerce.Ecommerce.repository.SalesRollupStateRepo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Hourly and daily sales per product, kept current from the order event outbox. Placing an
+ * order or changing an item's status writes an event in the same transaction; every second
+ * the events not yet rolled up are read in id order, summed into per-bucket deltas, added to
+ * sales_rollups with upserts and marked rolled up, all in one transaction, so each event is
+ * counted exactly once. Checkout itself never waits on a rollup row.
+ *
+ * <p>Items ordered before the rollups existed (before the epoch) are added by the one-time
+ * {@link SalesRollupBackfill}; their events wait until it has finished. Runs on one instance.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    // statuses whose units have been put back into stock; their items no longer count as sales
+    private static final Set<OrderStatus> RESTOCKED_STATUSES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.RETURNED);
+
+    private static final String MYSQL_UPSERT =
+            "insert into sales_rollups (granularity, bucket_start, product_id, category_id, order_items, units, revenue) " +
+            "values (?, ?, ?, ?, ?, ?, ?) on duplicate key update " +
+            "order_items = order_items + values(order_items), units = units + values(units), revenue = revenue + values(revenue)";
+
+    // SQL:2003 MERGE, for the H2 test database (and PostgreSQL 15+)
+    private static final String MERGE_UPSERT =
+            "merge into sales_rollups r using (values (cast(? as smallint), cast(? as timestamp), cast(? as bigint), " +
+            "cast(? as bigint), cast(? as bigint), cast(? as bigint), cast(? as decimal(38,2)))) " +
+            "as d (granularity, bucket_start, product_id, category_id, order_items, units, revenue) " +
+            "on r.granularity = d.granularity and r.bucket_start = d.bucket_start and r.product_id = d.product_id " +
+            "when matched then update set order_items = r.order_items + d.order_items, units = r.units + d.units, " +
+            "revenue = r.revenue + d.revenue " +
+            "when not matched then insert (granularity, bucket_start, product_id, category_id, order_items, units, revenue) " +
+            "values (d.granularity, d.bucket_start, d.product_id, d.category_id, d.order_items, d.units, d.revenue)";
+
+    private final OrderEventRepo orderEventRepo;
+    private final SalesRollupRepo salesRollupRepo;
+    private final SalesRollupStateRepo salesRollupStateRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private String upsertSql;
+
+    public SalesRollupService(OrderEventRepo orderEventRepo,
+                              SalesRollupRepo salesRollupRepo,
+                              SalesRollupStateRepo salesRollupStateRepo,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${analytics.rollup.batch-size:500}") int batchSize) {
+        this.orderEventRepo = orderEventRepo;
+        this.salesRollupRepo = salesRollupRepo;
+        this.salesRollupStateRepo = salesRollupStateRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /** Picks the upsert dialect and, on first start, fixes the epoch at now. */
+    @PostConstruct
+    public void init() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        upsertSql = database != null && (database.contains("MySQL") || database.contains("MariaDB"))
+                ? MYSQL_UPSERT : MERGE_UPSERT;
+
+        if (!salesRollupStateRepo.existsById(SalesRollupState.ID)) {
+            SalesRollupState state = new SalesRollupState();
+            state.setId(SalesRollupState.ID);
+            state.setEpoch(LocalDateTime.now());
+            salesRollupStateRepo.save(state);
+            log.info("Sales rollups start at {}; run the backfill for earlier orders", state.getEpoch());
+        }
+    }
+
+    public SalesRollupState getState() {
+        return salesRollupStateRepo.findById(SalesRollupState.ID)
+                .orElseThrow(() -> new IllegalStateException("Sales rollup state is missing"));
+    }
+
+    // synchronized: two overlapping runs would add the same events twice
+    @Scheduled(fixedDelayString = "${analytics.rollup.interval-ms:1000}")
+    public synchronized void rollUp() {
+        int rolledUp;
+        do {
+            rolledUp = transactionTemplate.execute(status -> rollUpBatch());
+        } while (rolledUp == batchSize);
+    }
+
+    private int rollUpBatch() {
+        SalesRollupState state = getState();
+        List<SalesEventRow> rows = orderEventRepo.findSalesRowsNotRolledUp(
+                state.getEpoch(), state.getBackfilledAt() != null, Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Deltas deltas = new Deltas();
+        List<Long> eventIds = new ArrayList<>(rows.size());
+        for (SalesEventRow row : rows) {
+            eventIds.add(row.eventId());
+            // the item or product is gone: nothing left to attribute the sale to
+            if (row.orderedAt() == null || row.productId() == null) {
+                continue;
+            }
+            int sign = row.type() == OrderEventType.ITEM_PLACED
+                    ? countsAsSale(row.status())
+                    : countsAsSale(row.status()) - countsAsSale(row.previousStatus());
+            deltas.add(row.productId(), row.categoryId(), row.orderedAt(), sign, row.quantity(), row.price());
+        }
+        apply(deltas);
+        orderEventRepo.markRolledUp(eventIds, LocalDateTime.now());
+        return rows.size();
+    }
+
+    private static int countsAsSale(OrderStatus status) {
+        return status == null || RESTOCKED_STATUSES.contains(status) ? 0 : 1;
+    }
+
+    /** Adds the deltas to their rollup rows, creating missing rows; must run in the caller's transaction. */
+    void apply(Deltas deltas) {
+        if (deltas.rows.isEmpty()) {
+            return;
+        }
+        // keys arrive sorted, so concurrent writers lock rows in the same order
+        List<Object[]> args = new ArrayList<>(deltas.rows.size());
+        deltas.rows.forEach((key, delta) -> args.add(new Object[]{
+                key.getGranularity().ordinal(), Timestamp.valueOf(key.getBucketStart()), key.getProductId(),
+                delta.categoryId, delta.orderItems, delta.units, delta.revenue}));
+        jdbcTemplate.batchUpdate(upsertSql, args);
+    }
+
+    public Response getSales(String granularity, LocalDateTime from, LocalDateTime to, String groupBy, Long productId) {
+        RollupGranularity rollupGranularity = parseGranularity(granularity);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from
+                : end.minusDays(rollupGranularity == RollupGranularity.HOUR ? 2 : 30);
+        if (!start.isBefore(end)) {
+            throw new InvalidCredentialsException("from must be before to");
+        }
+        // whole buckets only, so the first point is not a partial bucket
+        start = rollupGranularity.bucketStart(start);
+
+        List<SalesRollupDto> points;
+        if (productId != null) {
+            points = salesRollupRepo.findProductSeries(productId, rollupGranularity, start, end);
+        } else if ("total".equalsIgnoreCase(groupBy)) {
+            points = salesRollupRepo.sumByBucket(rollupGranularity, start, end);
+        } else if (groupBy == null || "category".equalsIgnoreCase(groupBy)) {
+            points = salesRollupRepo.sumByBucketAndCategory(rollupGranularity, start, end);
+        } else {
+            throw new InvalidCredentialsException("groupBy must be category or total");
+        }
+        return Response.builder()
+                .status(200)
+                .salesRollupList(points)
+                .build();
+    }
+
+    private static RollupGranularity parseGranularity(String granularity) {
+        try {
+            return RollupGranularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Unknown granularity: " + granularity);
+        }
+    }
+
+    /** Sales changes summed per hour and day bucket and product, before they are written. */
+    static final class Deltas {
+
+        private static final Comparator<SalesRollup.Key> KEY_ORDER = Comparator
+                .comparing(SalesRollup.Key::getGranularity)
+                .thenComparing(SalesRollup.Key::getBucketStart)
+                .thenComparing(SalesRollup.Key::getProductId);
+
+        private final Map<SalesRollup.Key, Delta> rows = new TreeMap<>(KEY_ORDER);
+
+        void add(Long productId, Long categoryId, LocalDateTime orderedAt, int sign, int quantity, BigDecimal price) {
+            if (sign == 0) {
+                return;
+            }
+            BigDecimal revenue = price != null ? price.multiply(BigDecimal.valueOf(sign)) : BigDecimal.ZERO;
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Delta delta = rows.computeIfAbsent(
+                        new SalesRollup.Key(granularity, granularity.bucketStart(orderedAt), productId),
+                        key -> new Delta(categoryId));
+                delta.orderItems += sign;
+                delta.units += (long) sign * quantity;
+                delta.revenue = delta.revenue.add(revenue);
+            }
+        }
+    }
+
+    private static final class Delta {
+        private final Long categoryId;
+        private long orderItems;
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private Delta(Long categoryId) {
+            this.categoryId = categoryId;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.cache.ProductCache;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import Ecommerce.Ecommerce.exception.OutOfStockException;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reserves and releases product stock. Each product is decremented with a single conditional
+ * UPDATE (no read-modify-write, no application lock), so orders for different products never
+ * wait on each other and orders for the same product only hold its row lock for one statement.
+ * Products in a flash sale bypass the row entirely; see {@link FlashSaleService}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StockService {
+
+    private final ProductRepo productRepo;
+    private final ProductCache productCache;
+    private final FlashSaleService flashSaleService;
+
+    /**
+     * Takes the requested quantity of every product, or none of them: the first shortage throws
+     * {@link OutOfStockException} and the surrounding transaction rolls back earlier decrements.
+     * Products in a flash sale are taken from their in-memory counter and handed back if the
+     * transaction rolls back.
+     */
+    @Transactional
+    public void reserve(Map<Long, Integer> quantitiesByProductId) {
+        quantitiesByProductId.values().forEach(StockService::checkQuantity);
+        Long shortProductId = tryReserve(quantitiesByProductId);
+        if (shortProductId != null) {
+            throw outOfStock(shortProductId);
+        }
+    }
+
+    /**
+     * Same as {@link #reserve} but reports a shortage by returning the short product's id instead
+     * of throwing, for callers that roll back to a savepoint rather than failing the whole
+     * transaction. Must run inside the caller's transaction; quantities must already be positive.
+     */
+    public Long tryReserve(Map<Long, Integer> quantitiesByProductId) {
+        // lock rows in id order so two multi-product orders cannot deadlock on each other
+        Map<Long, Integer> ordered = new TreeMap<>(quantitiesByProductId);
+        Map<Long, Integer> flashSaleUnits = new HashMap<>();
+        List<Long> reserved = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : ordered.entrySet()) {
+            boolean taken = switch (flashSaleService.tryReserve(entry.getKey(), entry.getValue())) {
+                case RESERVED -> {
+                    flashSaleUnits.put(entry.getKey(), entry.getValue());
+                    yield true;
+                }
+                case SOLD_OUT -> false;
+                case NOT_IN_SALE -> {
+                    if (productRepo.reserveStock(entry.getKey(), entry.getValue()) == 0) {
+                        yield false;
+                    }
+                    reserved.add(entry.getKey());
+                    yield true;
+                }
+            };
+            if (!taken) {
+                returnFlashSaleUnits(flashSaleUnits);
+                return entry.getKey();
+            }
+        }
+        returnFlashSaleUnitsOnRollback(flashSaleUnits);
+        evictAfterCommit(reserved);
+        return null;
+    }
+
+    /**
+     * Takes flash-sale units for an order before its transaction starts, so a sold-out order is
+     * turned away without touching the database. All-or-nothing across the order's flash-sale
+     * products; returns what was taken, which the caller hands back via
+     * {@link #returnFlashSaleUnits} if the order then fails. Products not in a sale are skipped.
+     */
+    public Map<Long, Integer> reserveFlashSaleUnits(Map<Long, Integer> quantitiesByProductId) {
+        Map<Long, Integer> taken = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            checkQuantity(entry.getValue());
+            FlashSaleService.Reservation reservation = flashSaleService.tryReserve(entry.getKey(), entry.getValue());
+            if (reservation == FlashSaleService.Reservation.SOLD_OUT) {
+                returnFlashSaleUnits(taken);
+                throw outOfStock(entry.getKey());
+            }
+            if (reservation == FlashSaleService.Reservation.RESERVED) {
+                taken.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return taken;
+    }
+
+    /** Hands flash-sale units back; once a sale has ended they go back to the product row instead. */
+    public void returnFlashSaleUnits(Map<Long, Integer> unitsByProductId) {
+        unitsByProductId.forEach((productId, quantity) -> {
+            if (!flashSaleService.returnUnits(productId, quantity)) {
+                productRepo.releaseStock(productId, quantity);
+                productCache.evict(productId);
+            }
+        });
+    }
+
+    @Transactional
+    public void release(Long productId, int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        if (flashSaleService.isActive(productId)) {
+            // the counter cannot roll back with the transaction, so only return units once it commits
+            runAfterCommit(() -> returnFlashSaleUnits(Map.of(productId, quantity)));
+            return;
+        }
+        if (productRepo.releaseStock(productId, quantity) > 0) {
+            evictAfterCommit(List.of(productId));
+        }
+    }
+
+    /**
+     * Sets an absolute stock count (restock or correction). Refused while a flash sale owns the
+     * product's stock. The check runs under the product's row lock: a sale claims its counter
+     * before it locks the row to read the stock, so an edit either commits before the sale reads
+     * the row or sees the sale and is refused, never lands underneath a running counter.
+     */
+    @Transactional
+    public void setStock(Long productId, int stock) {
+        if (productRepo.findByIdForUpdate(productId).isEmpty()) {
+            throw new NotFoundException("Product Not Found");
+        }
+        if (flashSaleService.isActive(productId)) {
+            throw new InvalidCredentialsException("Stock cannot be changed while a flash sale is running");
+        }
+        productRepo.updateStock(productId, stock);
+        evictAfterCommit(List.of(productId));
+    }
+
+    private static void checkQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new InvalidCredentialsException("Quantity must be positive");
+        }
+    }
+
+    private static OutOfStockException outOfStock(Long productId) {
+        return new OutOfStockException("Insufficient stock for product " + productId);
+    }
+
+    private void returnFlashSaleUnitsOnRollback(Map<Long, Integer> unitsByProductId) {
+        if (unitsByProductId.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    returnFlashSaleUnits(unitsByProductId);
+                }
+            }
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // cached product details show stock, so drop them once the new value is visible to other readers
+    private void evictAfterCommit(Collection<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            runAfterCommit(() -> productIds.forEach(productCache::evict));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package Ecommerce.Ecommerce.service.image;
+
+import Ecommerce.Ecommerce.cache.ProductCache;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import Ecommerce.Ecommerce.search.ProductSearchIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the thumbnail, card and detail renditions of a product image in the background.
+ * Work runs on a small bounded pool; when its queue is full the request is dropped instead of
+ * blocking the caller, and the periodic sweep picks the product up once the pool has drained.
+ * Until renditions exist the product is served with its original image only.
+ */
+@Service
+@Slf4j
+public class ImageRenditionService {
+
+    private static final int THUMBNAIL_WIDTH = 150;
+    private static final int CARD_WIDTH = 400;
+    private static final int DETAIL_WIDTH = 1024;
+
+    private final ImageStore imageStore;
+    private final ProductRepo productRepo;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final EntityDtoMapper entityDtoMapper;
+    private final ThreadPoolExecutor executor;
+
+    // products queued or being resized, so the sweep does not submit them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageRenditionService(ImageStore imageStore,
+                                 ProductRepo productRepo,
+                                 ProductCache productCache,
+                                 ProductSearchIndex productSearchIndex,
+                                 EntityDtoMapper entityDtoMapper,
+                                 @Value("${image.renditions.workers:2}") int workers,
+                                 @Value("${image.renditions.queue-capacity:100}") int queueCapacity) {
+        this.imageStore = imageStore;
+        this.productRepo = productRepo;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.entityDtoMapper = entityDtoMapper;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-rendition-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues renditions for the product's current image. Never blocks; returns false when the
+     * pool is saturated and the product is left for the next sweep.
+     */
+    public boolean submit(Long productId, String sourceUrl) {
+        if (productId == null || sourceUrl == null || !inFlight.add(productId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(productId, sourceUrl);
+                } finally {
+                    inFlight.remove(productId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(productId);
+            log.debug("Rendition queue full, product {} deferred to next sweep", productId);
+            return false;
+        }
+    }
+
+    /** Picks up products whose renditions were deferred, lost on restart or never produced. */
+    @Scheduled(fixedDelayString = "${image.renditions.sweep-interval-ms:60000}",
+            initialDelayString = "${image.renditions.sweep-interval-ms:60000}")
+    public void sweep() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        for (Product product : productRepo.findByThumbnailUrlIsNullAndImageUrlIsNotNull(Limit.of(capacity))) {
+            if (!submit(product.getId(), product.getImageUrl()) && executor.getQueue().remainingCapacity() == 0) {
+                break;
+            }
+        }
+    }
+
+    private void generate(Long productId, String sourceUrl) {
+        String thumbnailUrl = sourceUrl;
+        String cardUrl = sourceUrl;
+        String detailUrl = sourceUrl;
+        try {
+            BufferedImage original;
+            try (InputStream in = imageStore.open(sourceUrl)) {
+                original = ImageIO.read(in);
+            }
+            if (original == null) {
+                log.warn("Unsupported image format for product {}, serving the original", productId);
+            } else {
+                // renditions of a new image get new keys so browsers and CDNs never serve a stale copy
+                String prefix = "renditions/" + productId + "/" + Integer.toHexString(sourceUrl.hashCode()) + "-";
+                thumbnailUrl = storeRendition(prefix + "thumb.jpg", original, THUMBNAIL_WIDTH);
+                cardUrl = storeRendition(prefix + "card.jpg", original, CARD_WIDTH);
+                detailUrl = storeRendition(prefix + "detail.jpg", original, DETAIL_WIDTH);
+            }
+        } catch (IOException | RuntimeException e) {
+            // fall back to the original so the sweep does not retry a broken image forever
+            log.warn("Unable to create renditions for product {}: {}", productId, e.getMessage());
+            thumbnailUrl = cardUrl = detailUrl = sourceUrl;
+        }
+
+        // skipped when the image was replaced while we were resizing; the new image has its own task
+        if (productRepo.updateRenditions(productId, sourceUrl, thumbnailUrl, cardUrl, detailUrl) > 0) {
+            productCache.evict(productId);
+            productRepo.findById(productId)
+                    .ifPresent(product -> productSearchIndex.index(entityDtoMapper.mapProductToDtoBasic(product)));
+        }
+    }
+
+    private String storeRendition(String key, BufferedImage original, int maxWidth) throws IOException {
+        BufferedImage resized = resize(original, maxWidth);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(resized, "jpg", out);
+        byte[] bytes = out.toByteArray();
+        return imageStore.store(key, new ByteArrayInputStream(bytes), bytes.length, "image/jpeg");
+    }
+
+    private static BufferedImage resize(BufferedImage original, int maxWidth) {
+        // never upscale; keep the aspect ratio
+        int width = Math.min(maxWidth, original.getWidth());
+        int height = Math.max(1, (int) Math.round((double) original.getHeight() * width / original.getWidth()));
+
+        // JPEG has no alpha channel, so draw onto an opaque white canvas
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package Ecommerce.Ecommerce.service.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Storage backend for product images. Implementations keep their clients and
+ * connection pools for the lifetime of the application.
+ */
+public interface ImageStore {
+
+    /**
+     * Streams {@code content} to the store under {@code key} and returns the public URL.
+     * {@code contentLength} must be exact so the upload can stream without buffering.
+     */
+    String store(String key, InputStream content, long contentLength, String contentType);
+
+    /** Returns the URL of an existing image under {@code key}, or {@code null} if nothing is stored there. */
+    String find(String key);
+
+    /** Opens an image previously returned by {@link #store}; fails if the URL does not belong to this store. */
+    InputStream open(String url) throws IOException;
+}
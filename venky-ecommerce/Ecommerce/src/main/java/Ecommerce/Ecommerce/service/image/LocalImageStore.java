@@ -0,0 +1,82 @@
+package Ecommerce.Ecommerce.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Filesystem image store for tests and air-gapped installs; enable with {@code image.store=local}.
+ * Files are served back by the application under {@code /images/**}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "image.store", havingValue = "local")
+public class LocalImageStore implements ImageStore, WebMvcConfigurer {
+
+    private final Path rootDirectory;
+    private final String baseUrl;
+
+    public LocalImageStore(@Value("${image.local.dir:images}") String rootDirectory,
+                           @Value("${image.local.base-url:/images/}") String baseUrl) throws IOException {
+        this.rootDirectory = Files.createDirectories(Paths.get(rootDirectory).toAbsolutePath().normalize());
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        log.info("Storing images under {}", this.rootDirectory);
+    }
+
+    @Override
+    public String store(String key, InputStream content, long contentLength, String contentType) {
+        Path target = rootDirectory.resolve(key).normalize();
+        if (!target.startsWith(rootDirectory)) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            // write to a temp file first so readers never see a half-written image
+            Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try {
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to store image " + key, e);
+        }
+        return baseUrl + key;
+    }
+
+    @Override
+    public String find(String key) {
+        Path target = rootDirectory.resolve(key).normalize();
+        return target.startsWith(rootDirectory) && Files.isRegularFile(target) ? baseUrl + key : null;
+    }
+
+    @Override
+    public InputStream open(String url) throws IOException {
+        if (url == null || !url.startsWith(baseUrl)) {
+            throw new IOException("Image is not stored locally: " + url);
+        }
+        Path source = rootDirectory.resolve(url.substring(baseUrl.length())).normalize();
+        if (!source.startsWith(rootDirectory)) {
+            throw new IOException("Invalid image url: " + url);
+        }
+        return Files.newInputStream(source);
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/images/**")
+                .addResourceLocations(rootDirectory.toUri().toString());
+    }
+}
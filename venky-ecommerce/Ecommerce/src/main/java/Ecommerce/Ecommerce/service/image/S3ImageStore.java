@@ -0,0 +1,107 @@
+package Ecommerce.Ecommerce.service.image;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * S3-backed image store. One pooled client and transfer manager are shared by all uploads.
+ * Images are streamed straight from the request with their exact length, never buffered;
+ * above the threshold they go up as 8 MB multipart parts so a failed part is retried on its
+ * own. Parts of a stream are sent one after another: the transfer manager only uploads parts
+ * in parallel from a file, and spooling every large image to disk first is not worth it for
+ * product images.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "image.store", havingValue = "s3", matchIfMissing = true)
+public class S3ImageStore implements ImageStore {
+
+    private static final long MULTIPART_THRESHOLD_BYTES = 16L * 1024 * 1024;
+    private static final long MIN_PART_SIZE_BYTES = 8L * 1024 * 1024;
+
+    private final String bucketName;
+    private final String baseUrl;
+    private final AmazonS3 s3Client;
+    private final TransferManager transferManager;
+
+    public S3ImageStore(@Value("${aws.s3.access}") String awsS3AccessKey,
+                        @Value("${aws.s3.secrete}") String awsS3SecreteKey,
+                        @Value("${aws.s3.bucket:ecomm-venkiyyy}") String bucketName,
+                        @Value("${aws.s3.max-connections:50}") int maxConnections) {
+        this.bucketName = bucketName;
+        this.baseUrl = "https://" + bucketName + ".s3.us-east-1.amazonaws.com/";
+        BasicAWSCredentials awsCredentials = new BasicAWSCredentials(awsS3AccessKey, awsS3SecreteKey);
+        this.s3Client = AmazonS3ClientBuilder.standard()
+                .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
+                .withRegion(Regions.US_EAST_1)
+                .withClientConfiguration(new ClientConfiguration().withMaxConnections(maxConnections))
+                .build();
+        this.transferManager = TransferManagerBuilder.standard()
+                .withS3Client(s3Client)
+                .withMultipartUploadThreshold(MULTIPART_THRESHOLD_BYTES)
+                .withMinimumUploadPartSize(MIN_PART_SIZE_BYTES)
+                .build();
+    }
+
+    @Override
+    public String store(String key, InputStream content, long contentLength, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setContentLength(contentLength);
+
+        try {
+            transferManager.upload(new PutObjectRequest(bucketName, key, content, metadata)).waitForCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while uploading image to s3 bucket", e);
+        } catch (AmazonClientException e) {
+            throw new RuntimeException("Unable to upload image to s3 bucket: " + e.getMessage(), e);
+        }
+        return baseUrl + key;
+    }
+
+    @Override
+    public String find(String key) {
+        try {
+            // HEAD request only, the object itself is not transferred
+            return s3Client.doesObjectExist(bucketName, key) ? baseUrl + key : null;
+        } catch (AmazonClientException e) {
+            throw new RuntimeException("Unable to query s3 bucket: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream open(String url) throws IOException {
+        if (url == null || !url.startsWith(baseUrl)) {
+            throw new IOException("Image is not stored in bucket " + bucketName + ": " + url);
+        }
+        try {
+            return s3Client.getObject(bucketName, url.substring(baseUrl.length())).getObjectContent();
+        } catch (AmazonClientException e) {
+            throw new IOException("Unable to read image from s3 bucket: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // also shuts down the wrapped s3 client
+        transferManager.shutdownNow(true);
+    }
+}
@@ -5,27 +5,37 @@ import Ecommerce.Ecommerce.dto.Response;
 import Ecommerce.Ecommerce.entity.Address;
 import Ecommerce.Ecommerce.entity.User;
 import Ecommerce.Ecommerce.repository.AddressRepo;
+import Ecommerce.Ecommerce.repository.UserRepo;
+import Ecommerce.Ecommerce.security.CustomUserDetailsService;
 import Ecommerce.Ecommerce.service.interf.AddressService;
 import Ecommerce.Ecommerce.service.interf.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
 public class AddressServiceImpl implements AddressService {
 
     private final AddressRepo addressRepo;
+    private final UserRepo userRepo;
     private final UserService userService;
+    private final CustomUserDetailsService customUserDetailsService;
 
 
     @Override
+    @Transactional
     public Response saveAndUpdateAddress(AddressDto addressDto) {
+        // the login user is the cached principal, shared across requests: read it, never edit it
         User user = userService.getLoginUser();
-        Address address = user.getAddress();
+        Address address = addressRepo.findByUserId(user.getId()).orElse(null);
+        boolean created = address == null;
 
-        if (address == null){
+        if (created){
             address = new Address();
-            address.setUser(user);
+            address.setUser(userRepo.getReferenceById(user.getId()));
         }
         if (addressDto.getStreet() != null) address.setStreet(addressDto.getStreet());
         if (addressDto.getCity() != null) address.setCity(addressDto.getCity());
@@ -34,11 +44,26 @@ public class AddressServiceImpl implements AddressService {
         if (addressDto.getCountry() != null) address.setCountry(addressDto.getCountry());
 
         addressRepo.save(address);
+        evictAfterCommit(user.getEmail());
 
-        String message = (user.getAddress() == null) ? "Address successfully created" : "Address successfully updated";
+        String message = created ? "Address successfully created" : "Address successfully updated";
         return Response.builder()
                 .status(200)
                 .message(message)
                 .build();
     }
-}
\ No newline at end of file
+
+    // the cached login user carries the old address; drop it once the new one is visible to the reload
+    private void evictAfterCommit(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            customUserDetailsService.evict(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                customUserDetailsService.evict(email);
+            }
+        });
+    }
+}
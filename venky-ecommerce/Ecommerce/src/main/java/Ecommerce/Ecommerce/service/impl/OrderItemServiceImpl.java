@@ -1,32 +1,53 @@
 package Ecommerce.Ecommerce.service.impl;
 
 // Import statements: bring in classes your code uses.
+import Ecommerce.Ecommerce.dto.BulkStatusUpdateRequest;
 import Ecommerce.Ecommerce.dto.OrderItemDto;
+import Ecommerce.Ecommerce.dto.OrderItemRequest;
+import Ecommerce.Ecommerce.dto.OrderItemStatusRow;
 import Ecommerce.Ecommerce.dto.OrderRequest;
 import Ecommerce.Ecommerce.dto.Response;
-import Ecommerce.Ecommerce.entity.Order;
 import Ecommerce.Ecommerce.entity.OrderItem;
-import Ecommerce.Ecommerce.entity.Product;
 import Ecommerce.Ecommerce.entity.User;
 import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.event.OrderEventOutbox;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
 import Ecommerce.Ecommerce.exception.NotFoundException;
 import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.pagination.CursorCodec;
 import Ecommerce.Ecommerce.repository.OrderItemRepo;
-import Ecommerce.Ecommerce.repository.OrderRepo;
-import Ecommerce.Ecommerce.repository.ProductRepo;
+import Ecommerce.Ecommerce.service.OrderPlacementPipeline;
+import Ecommerce.Ecommerce.service.OrderStatusCounter;
+import Ecommerce.Ecommerce.service.StockService;
 import Ecommerce.Ecommerce.service.interf.OrderItemService;
 import Ecommerce.Ecommerce.service.interf.UserService;
 import Ecommerce.Ecommerce.specification.OrderItemSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 // Marks this class as a Spring service (a component that contains business logic).
@@ -37,12 +58,30 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderItemServiceImpl implements OrderItemService {
 
+    // statuses whose units have been put back into stock
+    private static final Set<OrderStatus> RESTOCKED_STATUSES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.RETURNED);
+
+    // keyset order for filterOrderItemsAfter; id breaks ties between items created in the same instant
+    private static final Sort SEEK_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    // largest keyset page; matches the endpoint's default size, so larger requests are clamped
+    private static final int MAX_SEEK_PAGE_SIZE = 1000;
+
     // Repositories and services injected via constructor (because of @RequiredArgsConstructor)
-    private final OrderRepo orderRepo;               // used to save/fetch Order entities
     private final OrderItemRepo orderItemRepo;       // used to save/fetch OrderItem entities
-    private final ProductRepo productRepo;           // used to fetch Product entities
     private final UserService userService;           // used to get the currently logged-in User
     private final EntityDtoMapper entityDtoMapper;   // used to convert entities to DTOs
+    private final StockService stockService;         // used to reserve and release product stock
+    private final OrderPlacementPipeline orderPlacementPipeline; // writes orders, batched when the pipeline is enabled
+    private final TransactionTemplate transactionTemplate; // one transaction per bulk status chunk
+    private final OrderStatusCounter orderStatusCounter;   // live per-status item counts
+    private final OrderEventOutbox orderEventOutbox;       // order events, written in the same transaction as the change
+
+    @PersistenceContext
+    private EntityManager entityManager;             // id-only queries for bulk status changes
+
+    @Value("${order.bulk-update.chunk-size:500}")
+    private int bulkUpdateChunkSize;                 // order items per UPDATE ... WHERE id IN (...)
 
     // -------------------------------
     // placeOrder: create order + order items and save to DB
@@ -50,78 +89,83 @@ public class OrderItemServiceImpl implements OrderItemService {
     @Override
     public Response placeOrder(OrderRequest orderRequest) {
 
-        // Get the currently logged-in user (who places the order)
+        // Get the currently logged-in user (who places the order) while still on the request thread
         User user = userService.getLoginUser();
 
-        // Map each item in the incoming request to an OrderItem entity
-        List<OrderItem> orderItems = orderRequest.getItems().stream().map(orderItemRequest -> {
-            // For each requested item, fetch the Product from DB by ID.
-            // If product not found, throw NotFoundException.
-            Product product = productRepo.findById(orderItemRequest.getProductId())
-                    .orElseThrow(() -> new NotFoundException("Product Not Found"));
-
-            // Create a new OrderItem entity and set its fields
-            OrderItem orderItem = new OrderItem();
-            orderItem.setProduct(product); // associate the product
-            orderItem.setQuantity(orderItemRequest.getQuantity()); // set quantity
-
-            // Compute price = product price * quantity and set it.
-            // product.getPrice() is a BigDecimal; multiply by quantity converted to BigDecimal.
-            orderItem.setPrice(product.getPrice().multiply(BigDecimal.valueOf(orderItemRequest.getQuantity()))); // set price according to the quantity
-
-            // Initial status for a newly placed item is PENDING
-            orderItem.setStatus(OrderStatus.PENDING);
-
-            // Associate the order item with the user who placed it
-            orderItem.setUser(user);
-
-            // Return the built OrderItem for collection
-            return orderItem;
+        // Total quantity per product across the cart (the same product may appear on several lines)
+        Map<Long, Integer> quantitiesByProductId = orderRequest.getItems().stream()
+                .collect(Collectors.toMap(OrderItemRequest::getProductId, OrderItemRequest::getQuantity, Integer::sum));
 
-        }).collect(Collectors.toList()); // collect stream result into a List<OrderItem>
+        // Flash-sale products are taken from their in-memory counters first, so a sold-out order
+        // is turned away before it opens a transaction or touches the database.
+        Map<Long, Integer> flashSaleUnits = stockService.reserveFlashSaleUnits(quantitiesByProductId);
+        Map<Long, Integer> remainingQuantities = new HashMap<>(quantitiesByProductId);
+        remainingQuantities.keySet().removeAll(flashSaleUnits.keySet());
 
-        // Calculate the total price for the order. Two possibilities:
-        // 1) If the request provides a non-null, positive totalPrice, use that.
-        // 2) Otherwise, sum the prices of all orderItems computed above.
-        BigDecimal totalPrice = orderRequest.getTotalPrice() != null && orderRequest.getTotalPrice().compareTo(BigDecimal.ZERO) > 0
-                ? orderRequest.getTotalPrice()
-                : orderItems.stream().map(OrderItem::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Create a new Order entity and set its fields
-        Order order = new Order();
-        order.setOrderItemList(orderItems); // set the list of order items
-        order.setTotalPrice(totalPrice);   // set the order total price
-
-        // For each OrderItem, set its back-reference to the parent Order.
-        // This ensures the relationship is bidirectional (if your entities expect it).
-        orderItems.forEach(orderItem -> orderItem.setOrder(order));
-
-        // Persist the Order (and usually cascading will persist OrderItems if cascade is configured).
-        orderRepo.save(order);
+        try {
+            return orderPlacementPipeline.place(user, orderRequest, remainingQuantities);
+        } catch (RuntimeException e) {
+            stockService.returnFlashSaleUnits(flashSaleUnits);
+            throw e;
+        }
+    }
 
-        // Return a simple success Response DTO
+    @Override
+    public Response getOrderStatusCounts() {
         return Response.builder()
                 .status(200)
-                .message("Order was successfully placed")
+                .statusCounts(orderStatusCounter.snapshot())
                 .build();
+    }
 
+    @Override
+    public Response getOrderPipelineStats() {
+        return Response.builder()
+                .status(200)
+                .orderPipelineStats(orderPlacementPipeline.stats())
+                .build();
     }
 
     // -------------------------------
     // updateOrderItemStatus: change the status of a specific order item
     // -------------------------------
     @Override
+    @Transactional
     public Response updateOrderItemStatus(Long orderItemId, String status) {
-        // Find the order item by ID; if not present throw NotFoundException
-        OrderItem orderItem = orderItemRepo.findById(orderItemId)
+        // Find and lock the order item; a concurrent change to it waits, then sees the new status
+        OrderItem orderItem = orderItemRepo.findByIdForUpdate(orderItemId)
                 .orElseThrow(() -> new NotFoundException("Order Item not found"));
 
-        // Convert the provided status String to the enum value.
-        // valueOf will throw IllegalArgumentException if string doesn't match any enum constant.
-        orderItem.setStatus(OrderStatus.valueOf(status.toUpperCase()));
+        // Convert the provided status String to the enum value and check the move is allowed.
+        OrderStatus newStatus = parseStatus(status);
+        OrderStatus oldStatus = orderItem.getStatus();
+        if (newStatus == oldStatus) {
+            return Response.builder()
+                    .status(200)
+                    .message("Order status updated successfully")
+                    .build();
+        }
+        if (!oldStatus.canTransitionTo(newStatus)) {
+            throw new InvalidCredentialsException("Cannot change order status from " + oldStatus + " to " + newStatus);
+        }
+
+        // Cancelled and returned items give their units back; reopening one takes them again.
+        boolean wasReleased = RESTOCKED_STATUSES.contains(oldStatus);
+        boolean isReleased = RESTOCKED_STATUSES.contains(newStatus);
+        if (orderItem.getProduct() != null && wasReleased != isReleased) {
+            Long productId = orderItem.getProduct().getId();
+            if (isReleased) {
+                stockService.release(productId, orderItem.getQuantity());
+            } else {
+                stockService.reserve(Map.of(productId, orderItem.getQuantity()));
+            }
+        }
+        orderItem.setStatus(newStatus);
 
         // Save the changed order item back to DB
         orderItemRepo.save(orderItem);
+        orderEventOutbox.statusChanged(orderItem, oldStatus);
+        orderStatusCounter.recordTransitions(Map.of(oldStatus, 1L), newStatus);
 
         // Return success response
         return Response.builder()
@@ -130,16 +174,56 @@ public class OrderItemServiceImpl implements OrderItemService {
                 .build();
     }
 
+    // -------------------------------
+    // bulkUpdateOrderItemStatus: move many order items to one status with set-based updates
+    // -------------------------------
+    @Override
+    public Response bulkUpdateOrderItemStatus(BulkStatusUpdateRequest request) {
+        OrderStatus newStatus = parseStatus(request.getStatus());
+        long affectedRows = 0;
+
+        if (request.getOrderItemIds() != null && !request.getOrderItemIds().isEmpty()) {
+            // ids in ascending order so concurrent bulk updates lock rows in the same order
+            List<Long> ids = request.getOrderItemIds().stream().distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += bulkUpdateChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + bulkUpdateChunkSize, ids.size()));
+                affectedRows += updateStatusChunk(chunk, newStatus);
+            }
+        } else {
+            OrderStatus filterStatus = request.getFilterStatus() != null ? parseStatus(request.getFilterStatus()) : null;
+            if (filterStatus == null && request.getStartDate() == null && request.getEndDate() == null && request.getItemId() == null) {
+                throw new InvalidCredentialsException("Order item ids or at least one filter is required");
+            }
+            Specification<OrderItem> spec = OrderItemSpecification.matches(filterStatus, request.getStartDate(), request.getEndDate(), request.getItemId());
+            Long lastId = null;
+            while (true) {
+                // keyset on id, so items that stop matching once updated do not shift later chunks
+                List<Long> chunk = findIdChunk(spec, lastId);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                affectedRows += updateStatusChunk(chunk, newStatus);
+                lastId = chunk.get(chunk.size() - 1);
+                if (chunk.size() < bulkUpdateChunkSize) {
+                    break;
+                }
+            }
+        }
+
+        return Response.builder()
+                .status(200)
+                .message("Order status updated successfully")
+                .affectedRows(affectedRows)
+                .build();
+    }
+
     // -------------------------------
     // filterOrderItems: fetch paginated order items using specifications (filters)
     // -------------------------------
     @Override
     public Response filterOrderItems(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId, Pageable pageable) {
         // Build a combined Specification using helper methods from OrderItemSpecification.
-        // Each helper returns a Specification<OrderItem> that may be null (if filter not provided).
-        Specification<OrderItem> spec = Specification.where(OrderItemSpecification.hasStatus(status))
-                .and(OrderItemSpecification.createdBetween(startDate, endDate))
-                .and(OrderItemSpecification.hasItemId(itemId));
+        Specification<OrderItem> spec = filterSpec(status, startDate, endDate, itemId);
 
         // Query repository with the combined spec and pagination info.
         Page<OrderItem> orderItemPage = orderItemRepo.findAll(spec, pageable);
@@ -163,4 +247,126 @@ public class OrderItemServiceImpl implements OrderItemService {
                 .build();
     }
 
+
+    // -------------------------------
+    // filterOrderItemsSlice: same filters and offset paging, but without the COUNT(*) query
+    // -------------------------------
+    @Override
+    public Response filterOrderItemsSlice(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId, Pageable pageable) {
+        Specification<OrderItem> spec = filterSpec(status, startDate, endDate, itemId);
+
+        // a Slice reads one extra row to know whether another page exists instead of counting every match
+        Slice<OrderItem> orderItemSlice = orderItemRepo.findBy(spec, query -> query.slice(pageable));
+        if (orderItemSlice.isEmpty()) {
+            throw new NotFoundException("No Order Found");
+        }
+
+        return Response.builder()
+                .status(200)
+                .orderItemList(mapWithProductAndUser(orderItemSlice.getContent()))
+                .hasNext(orderItemSlice.hasNext())
+                .build();
+    }
+
+    // -------------------------------
+    // filterOrderItemsAfter: keyset paging on (createdAt, id); cost does not grow with page depth
+    // -------------------------------
+    @Override
+    public Response filterOrderItemsAfter(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId, String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEEK_PAGE_SIZE));
+        Specification<OrderItem> spec = filterSpec(status, startDate, endDate, itemId)
+                .and(OrderItemSpecification.seekAfter(CursorCodec.decodeSeek(after)));
+
+        // newest first, matching the (status, created_at, id) / (created_at, id) indexes; one extra row to detect a next page
+        List<OrderItem> orderItems = orderItemRepo.findBy(spec, query -> query
+                .sortBy(SEEK_ORDER)
+                .limit(pageSize + 1)
+                .all());
+        if (orderItems.isEmpty()) {
+            throw new NotFoundException("No Order Found");
+        }
+
+        boolean hasNext = orderItems.size() > pageSize;
+        if (hasNext) {
+            orderItems = orderItems.subList(0, pageSize);
+        }
+        OrderItem last = orderItems.get(orderItems.size() - 1);
+
+        return Response.builder()
+                .status(200)
+                .orderItemList(mapWithProductAndUser(orderItems))
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorCodec.encodeSeek(last.getCreatedAt(), last.getId()) : null)
+                .build();
+    }
+
+    // Locks the chunk, moves stock for items crossing into or out of a restocked status, then updates it in one statement.
+    // Items that cannot move to the new status (or are already in it) are left as they are.
+    private int updateStatusChunk(List<Long> ids, OrderStatus newStatus) {
+        return transactionTemplate.execute(status -> {
+            List<OrderItemStatusRow> movable = orderItemRepo.lockStatusRows(ids).stream()
+                    .filter(row -> row.status().canTransitionTo(newStatus))
+                    .toList();
+            if (movable.isEmpty()) {
+                return 0;
+            }
+            boolean isReleased = RESTOCKED_STATUSES.contains(newStatus);
+            Map<Long, Integer> crossingUnitsByProductId = movable.stream()
+                    .filter(row -> row.productId() != null && RESTOCKED_STATUSES.contains(row.status()) != isReleased)
+                    // in product id order, the same order checkout locks product rows in
+                    .collect(Collectors.toMap(OrderItemStatusRow::productId, OrderItemStatusRow::quantity, Integer::sum, TreeMap::new));
+            if (isReleased) {
+                crossingUnitsByProductId.forEach(stockService::release);
+            } else if (!crossingUnitsByProductId.isEmpty()) {
+                // reopening cancelled or returned items takes their units again; a shortage fails this chunk
+                stockService.reserve(crossingUnitsByProductId);
+            }
+            // rows are locked, so exactly these items change
+            int updated = orderItemRepo.updateStatus(movable.stream().map(OrderItemStatusRow::id).toList(), newStatus);
+            orderEventOutbox.statusChanged(movable, newStatus);
+            orderStatusCounter.recordTransitions(movable.stream()
+                    .collect(Collectors.groupingBy(OrderItemStatusRow::status, () -> new EnumMap<>(OrderStatus.class), Collectors.counting())),
+                    newStatus);
+            return updated;
+        });
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            throw new InvalidCredentialsException("Status is required");
+        }
+        try {
+            return OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Unknown order status: " + status);
+        }
+    }
+
+    private Specification<OrderItem> filterSpec(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId) {
+        // Load product, user and address in the same select; the count query stays join-free.
+        return OrderItemSpecification.matches(status, startDate, endDate, itemId)
+                .and(OrderItemSpecification.fetchProductAndUser());
+    }
+
+    // Next chunk of matching ids after lastId, in id order; selects the id column only, no entities.
+    private List<Long> findIdChunk(Specification<OrderItem> spec, Long lastId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<OrderItem> root = query.from(OrderItem.class);
+        query.select(root.get("id"));
+        Predicate predicate = spec.and(OrderItemSpecification.idGreaterThan(lastId)).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(bulkUpdateChunkSize)
+                .getResultList();
+    }
+
+    private List<OrderItemDto> mapWithProductAndUser(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .map(entityDtoMapper::mapOrderItemToDtoPlusProductAndUser)
+                .collect(Collectors.toList());
+    }
 }
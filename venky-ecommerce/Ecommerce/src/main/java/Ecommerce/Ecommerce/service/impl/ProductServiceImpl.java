@@ -1,17 +1,25 @@
 package Ecommerce.Ecommerce.service.impl;
 
+import Ecommerce.Ecommerce.cache.ProductCache;
 import Ecommerce.Ecommerce.dto.ProductDto;
 import Ecommerce.Ecommerce.dto.Response;
 import Ecommerce.Ecommerce.entity.Category;
 import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
 import Ecommerce.Ecommerce.exception.NotFoundException;
 import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.pagination.CursorCodec;
 import Ecommerce.Ecommerce.repository.CategoryRepo;
 import Ecommerce.Ecommerce.repository.ProductRepo;
+import Ecommerce.Ecommerce.search.ProductSearchIndex;
 import Ecommerce.Ecommerce.service.AwsS3Service;
+import Ecommerce.Ecommerce.service.FlashSaleService;
+import Ecommerce.Ecommerce.service.StockService;
+import Ecommerce.Ecommerce.service.image.ImageRenditionService;
 import Ecommerce.Ecommerce.service.interf.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -25,16 +33,24 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_PAGE_LIMIT = 100;
+
     private final ProductRepo productRepo;
     private final CategoryRepo categoryRepo;
     private final EntityDtoMapper entityDtoMapper;
     private final AwsS3Service awsS3Service;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCache productCache;
+    private final ImageRenditionService imageRenditionService;
+    private final FlashSaleService flashSaleService;
+    private final StockService stockService;
 
 
 
     @Override
-    public Response createProduct(Long categoryId, MultipartFile image, String name, String description, BigDecimal price) {
+    public Response createProduct(Long categoryId, MultipartFile image, String name, String description, BigDecimal price, Integer stock) {
         Category category = categoryRepo.findById(categoryId).orElseThrow(()-> new NotFoundException("Category not found"));
+        validateStock(stock);
         String productImageUrl = awsS3Service.saveImageToS3(image);
 
         Product product = new Product();
@@ -43,8 +59,11 @@ public class ProductServiceImpl implements ProductService {
         product.setName(name);
         product.setDescription(description);
         product.setImageUrl(productImageUrl);
+        product.setStock(stock);
 
-        productRepo.save(product);
+        Product savedProduct = productRepo.save(product);
+        productSearchIndex.index(entityDtoMapper.mapProductToDtoBasic(savedProduct));
+        imageRenditionService.submit(savedProduct.getId(), savedProduct.getImageUrl());
         return Response.builder()
                 .status(200)
                 .message("Product successfully created")
@@ -52,12 +71,17 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Response updateProduct(Long productId, Long categoryId, MultipartFile image, String name, String description, BigDecimal price) {
+    public Response updateProduct(Long productId, Long categoryId, MultipartFile image, String name, String description, BigDecimal price, Integer stock) {
         Product product = productRepo.findById(productId).orElseThrow(()-> new NotFoundException("Product Not Found"));
 
         Category category = null;
         String productImageUrl = null;
 
+        validateStock(stock);
+        if (stock != null && flashSaleService.isActive(productId)) {
+            // fast path before any upload; setStock re-checks under the row lock
+            throw new InvalidCredentialsException("Stock cannot be changed while a flash sale is running");
+        }
         if(categoryId != null ){
             category = categoryRepo.findById(categoryId).orElseThrow(()-> new NotFoundException("Category not found"));
         }
@@ -65,13 +89,32 @@ public class ProductServiceImpl implements ProductService {
             productImageUrl = awsS3Service.saveImageToS3(image);
         }
 
+        if (stock != null) {
+            // absolute count (restock/correction); orders keep decrementing from there.
+            // Written first and on its own, so an edit refused because a sale started changes nothing
+            stockService.setStock(productId, stock);
+        }
         if (category != null) product.setCategory(category);
         if (name != null) product.setName(name);
         if (price != null) product.setPrice(price);
         if (description != null) product.setDescription(description);
-        if (productImageUrl != null) product.setImageUrl(productImageUrl);
+        if (productImageUrl != null) {
+            product.setImageUrl(productImageUrl);
+            // old renditions belong to the previous image; serve the original until new ones are ready
+            product.setThumbnailUrl(null);
+            product.setCardUrl(null);
+            product.setDetailUrl(null);
+        }
 
-        productRepo.save(product);
+        Product savedProduct = productRepo.save(product);
+        if (stock != null) {
+            savedProduct.setStock(stock);
+        }
+        productCache.evict(productId);
+        productSearchIndex.index(entityDtoMapper.mapProductToDtoBasic(savedProduct));
+        if (productImageUrl != null) {
+            imageRenditionService.submit(savedProduct.getId(), productImageUrl);
+        }
         return Response.builder()
                 .status(200)
                 .message("Product updated successfully")
@@ -83,6 +126,8 @@ public class ProductServiceImpl implements ProductService {
     public Response deleteProduct(Long productId) {
         Product product = productRepo.findById(productId).orElseThrow(()-> new NotFoundException("Product Not Found"));
         productRepo.delete(product);
+        productCache.evict(productId);
+        productSearchIndex.remove(productId);
 
         return Response.builder()
                 .status(200)
@@ -92,8 +137,9 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Response getProductById(Long productId) {
-        Product product = productRepo.findById(productId).orElseThrow(()-> new NotFoundException("Product Not Found"));
-        ProductDto productDto = entityDtoMapper.mapProductToDtoBasic(product);
+        ProductDto productDto = productCache.get(productId, id -> productRepo.findById(id)
+                .map(entityDtoMapper::mapProductToDtoBasic)
+                .orElseThrow(()-> new NotFoundException("Product Not Found")));
 
         return Response.builder()
                 .status(200)
@@ -115,6 +161,32 @@ public class ProductServiceImpl implements ProductService {
 
     }
 
+    @Override
+    public Response getProductsPage(String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        Long afterId = CursorCodec.decodeId(after);
+
+        // fetch one extra row to learn whether another page exists without a COUNT query
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Product> products = afterId == null
+                ? productRepo.findAllByOrderByIdDesc(fetchLimit)
+                : productRepo.findByIdLessThanOrderByIdDesc(afterId, fetchLimit);
+
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = products.subList(0, pageSize);
+        }
+        List<ProductDto> productDtoList = products.stream()
+                .map(entityDtoMapper::mapProductToDtoBasic)
+                .collect(Collectors.toList());
+
+        return Response.builder()
+                .status(200)
+                .productList(productDtoList)
+                .nextCursor(hasNext ? CursorCodec.encodeId(products.get(products.size() - 1).getId()) : null)
+                .build();
+    }
+
     @Override
     public Response getProductsByCategory(Long categoryId) {
         List<Product> products = productRepo.findByCategoryId(categoryId);
@@ -134,14 +206,20 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Response searchProduct(String searchValue) {
-        List<Product> products = productRepo.findByNameContainingOrDescriptionContaining(searchValue, searchValue);
+        List<ProductDto> productDtoList;
+        if (productSearchIndex.isReady()) {
+            productDtoList = productSearchIndex.search(searchValue);
+        } else {
+            // index is still being built at startup
+            productDtoList = productRepo.findByNameContainingOrDescriptionContaining(searchValue, searchValue)
+                    .stream()
+                    .map(entityDtoMapper::mapProductToDtoBasic)
+                    .collect(Collectors.toList());
+        }
 
-        if (products.isEmpty()){
+        if (productDtoList.isEmpty()){
             throw new NotFoundException("No Products Found");
         }
-        List<ProductDto> productDtoList = products.stream()
-                .map(entityDtoMapper::mapProductToDtoBasic)
-                .collect(Collectors.toList());
 
 
         return Response.builder()
@@ -149,4 +227,18 @@ public class ProductServiceImpl implements ProductService {
                 .productList(productDtoList)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Override
+    public Response getProductCacheStats() {
+        return Response.builder()
+                .status(200)
+                .cacheStats(productCache.stats())
+                .build();
+    }
+
+    private void validateStock(Integer stock) {
+        if (stock != null && stock < 0) {
+            throw new InvalidCredentialsException("Stock cannot be negative");
+        }
+    }
+}
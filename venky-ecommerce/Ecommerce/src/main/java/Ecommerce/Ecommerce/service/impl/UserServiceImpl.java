@@ -1,6 +1,8 @@
 package Ecommerce.Ecommerce.service.impl;
 
 import Ecommerce.Ecommerce.dto.LoginRequest;
+import Ecommerce.Ecommerce.dto.OrderHistoryRow;
+import Ecommerce.Ecommerce.dto.OrderItemDto;
 import Ecommerce.Ecommerce.dto.Response;
 import Ecommerce.Ecommerce.dto.UserDto;
 import Ecommerce.Ecommerce.entity.User;
@@ -8,11 +10,16 @@ import Ecommerce.Ecommerce.enums.UserRole;
 import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
 import Ecommerce.Ecommerce.exception.NotFoundException;
 import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.pagination.CursorCodec;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
 import Ecommerce.Ecommerce.repository.UserRepo;
+import Ecommerce.Ecommerce.security.AuthUser;
+import Ecommerce.Ecommerce.security.CustomUserDetailsService;
 import Ecommerce.Ecommerce.security.JwtUtils;
 import Ecommerce.Ecommerce.service.interf.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,6 +27,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -27,11 +35,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_HISTORY_PAGE_LIMIT = 100;
 
     private final UserRepo userRepo;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final EntityDtoMapper entityDtoMapper;
+    private final OrderItemRepo orderItemRepo;
+    private final CustomUserDetailsService customUserDetailsService;
 
     @Override
     public Response registerUser(UserDto registrationRequest) {
@@ -50,6 +61,7 @@ public class UserServiceImpl implements UserService {
                 .build();
 
         User savedUser = userRepo.save(user);
+        customUserDetailsService.evict(savedUser.getEmail());
         System.out.println(savedUser);
 
         UserDto userDto = entityDtoMapper.mapUserToDtoBasic(savedUser);
@@ -97,6 +109,10 @@ public class UserServiceImpl implements UserService {
     @Override
     public User getLoginUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // JwtAuthFilter already loaded the user for this request; reuse it instead of querying again
+        if (authentication != null && authentication.getPrincipal() instanceof AuthUser authUser) {
+            return authUser.getUser();
+        }
         String  email = authentication.getName();
         log.info("User Email is: " + email);
         return userRepo.findByEmail(email)
@@ -106,11 +122,37 @@ public class UserServiceImpl implements UserService {
     @Override
     public Response getUserInfoAndOrderHistory() {
         User user = getLoginUser();
-        UserDto userDto = entityDtoMapper.mapUserToDtoPlusAddressAndOrderHistory(user);
+        // profile and address come from the cached principal; the history itself is paged via /user/order-history
+        UserDto userDto = entityDtoMapper.mapUserToDtoPlusAddress(user);
 
         return Response.builder()
                 .status(200)
                 .user(userDto)
+                .orderHistorySummary(orderItemRepo.summarizeOrderHistory(user.getId()))
+                .build();
+    }
+
+    @Override
+    public Response getOrderHistory(String after, int limit) {
+        User user = getLoginUser();
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_LIMIT));
+        Long afterId = CursorCodec.decodeId(after);
+
+        // one extra row tells us whether there is another page
+        List<OrderHistoryRow> rows = orderItemRepo.findOrderHistory(
+                user.getId(), afterId == null ? Long.MAX_VALUE : afterId, Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        List<OrderItemDto> orderItemDtos = rows.stream()
+                .map(entityDtoMapper::mapOrderHistoryRowToDto)
+                .collect(Collectors.toList());
+
+        return Response.builder()
+                .status(200)
+                .orderItemList(orderItemDtos)
+                .nextCursor(hasNext ? CursorCodec.encodeId(rows.get(rows.size() - 1).id()) : null)
                 .build();
     }
 
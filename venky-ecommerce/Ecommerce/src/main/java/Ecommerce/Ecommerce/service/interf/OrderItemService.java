@@ -1,5 +1,6 @@
 package Ecommerce.Ecommerce.service.interf;
 
+import Ecommerce.Ecommerce.dto.BulkStatusUpdateRequest;
 import Ecommerce.Ecommerce.dto.OrderRequest;
 import Ecommerce.Ecommerce.dto.Response;
 import Ecommerce.Ecommerce.enums.OrderStatus;
@@ -9,6 +10,11 @@ import java.time.LocalDateTime;
 
 public interface OrderItemService {
     Response placeOrder(OrderRequest orderRequest);
+    Response getOrderPipelineStats();
+    Response getOrderStatusCounts();
     Response updateOrderItemStatus(Long orderItemId, String status);
+    Response bulkUpdateOrderItemStatus(BulkStatusUpdateRequest request);
     Response filterOrderItems(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId, Pageable pageable);
+    Response filterOrderItemsSlice(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId, Pageable pageable);
+    Response filterOrderItemsAfter(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId, String after, int size);
 }
\ No newline at end of file
@@ -8,11 +8,13 @@ import java.math.BigDecimal;
 
 public interface ProductService {
 
-    Response createProduct(Long categoryId, MultipartFile image, String name, String description, BigDecimal price);
-    Response updateProduct(Long productId, Long categoryId, MultipartFile image, String name, String description, BigDecimal price);
+    Response createProduct(Long categoryId, MultipartFile image, String name, String description, BigDecimal price, Integer stock);
+    Response updateProduct(Long productId, Long categoryId, MultipartFile image, String name, String description, BigDecimal price, Integer stock);
     Response deleteProduct(Long productId);
     Response getProductById(Long productId);
     Response getAllProducts();
+    Response getProductsPage(String after, int limit);
     Response getProductsByCategory(Long categoryId);
     Response searchProduct(String searchValue);
+    Response getProductCacheStats();
 }
@@ -2,6 +2,9 @@ package Ecommerce.Ecommerce.specification;
 
 import Ecommerce.Ecommerce.entity.OrderItem;
 import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.pagination.CursorCodec;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
@@ -35,6 +38,46 @@ public class OrderItemSpecification {
         return ((root, query, criteriaBuilder) ->
                 itemId != null ? criteriaBuilder.equal(root.get("id"), itemId) : null);
     }
+
+    /** The admin order item filter: status, creation date range and item id, each skipped when null*/
+    public static Specification<OrderItem> matches(OrderStatus status, LocalDateTime startDate, LocalDateTime endDate, Long itemId){
+        return hasStatus(status)
+                .and(createdBetween(startDate, endDate))
+                .and(hasItemId(itemId));
+    }
+
+    /** Keyset predicate for walking matches in id order: rows with an id greater than the last one seen*/
+    public static Specification<OrderItem> idGreaterThan(Long id){
+        return ((root, query, criteriaBuilder) ->
+                id != null ? criteriaBuilder.greaterThan(root.get("id"), id) : null);
+    }
+
+    /** Keyset predicate for pages ordered by (createdAt DESC, id DESC): rows strictly after the cursor position*/
+    public static Specification<OrderItem> seekAfter(CursorCodec.SeekPosition position){
+        return ((root, query, criteriaBuilder) -> {
+            if (position == null) {
+                return null;
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("createdAt"), position.createdAt()),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("createdAt"), position.createdAt()),
+                            criteriaBuilder.lessThan(root.get("id"), position.id())));
+        });
+    }
+
+    /** Fetch-join product, user and the user's address so a page maps without extra selects (skipped for the count query)*/
+    public static Specification<OrderItem> fetchProductAndUser(){
+        return ((root, query, criteriaBuilder) -> {
+            Class<?> resultType = query.getResultType();
+            if (resultType != Long.class && resultType != long.class) {
+                root.fetch("product", JoinType.LEFT);
+                Fetch<Object, Object> user = root.fetch("user", JoinType.LEFT);
+                user.fetch("address", JoinType.LEFT);
+            }
+            return null;
+        });
+    }
 }
 /*
 Now, line by line in simple English
@@ -0,0 +1,132 @@
+-- Baseline schema, identical to what Hibernate generated with ddl-auto=update for the
+-- original entities (AUTO_INCREMENT ids, no secondary indexes). Existing databases are
+-- baselined at this version and skip it (see FlywayConfig); every later change is V2+.
+
+create table addresses (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    user_id bigint,
+    city varchar(255),
+    country varchar(255),
+    state varchar(255),
+    street varchar(255),
+    zip_code varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table categories (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items (
+    price decimal(38,2),
+    quantity integer not null,
+    status tinyint,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    order_id bigint,
+    product_id bigint,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    total_price decimal(38,2),
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    primary key (id)
+) engine=InnoDB;
+
+create table payments (
+    amount decimal(38,2),
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    order_id bigint,
+    method varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    price decimal(38,2),
+    category_id bigint,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    description varchar(255),
+    image_url varchar(255),
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table reviews (
+    rating integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    product_id bigint,
+    user_id bigint,
+    content varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    role tinyint,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone_number varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table categories
+    add constraint UKt8o6pivur7nn124jehx7cygw5 unique (name);
+
+alter table payments
+    add constraint UK8vo36cen604as7etdfwmyjsxt unique (order_id);
+
+alter table users
+    add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table addresses
+    add constraint FK1fa36y2oqhao3wgg2rw1pi459
+    foreign key (user_id)
+    references users (id);
+
+alter table order_items
+    add constraint FKbioxgbv59vetrxe0ejfubep1w
+    foreign key (order_id)
+    references orders (id);
+
+alter table order_items
+    add constraint FKocimc7dtr037rh4ls4l95nlfi
+    foreign key (product_id)
+    references products (id);
+
+alter table order_items
+    add constraint FKhx6gswhearm3wj5sy50ypcyg5
+    foreign key (user_id)
+    references users (id);
+
+alter table payments
+    add constraint FK81gagumt0r8y3rmudcgpbk42l
+    foreign key (order_id)
+    references orders (id);
+
+alter table products
+    add constraint FKog2rp4qthbtt2lfyhfo32lsw9
+    foreign key (category_id)
+    references categories (id);
+
+alter table reviews
+    add constraint FKpl51cejpw4gy5swfar8br9ngi
+    foreign key (product_id)
+    references products (id);
+
+alter table reviews
+    add constraint FKcgy7qjc1r99dp117y9en6lxye
+    foreign key (user_id)
+    references users (id);
@@ -0,0 +1,64 @@
+-- Changes made to the entities after the baseline, up to the Flyway switch.
+
+-- Pooled, table-backed id sequences (allocationSize = 50) replace AUTO_INCREMENT.
+-- Each starts one allocation past the highest existing id, so the first block Hibernate
+-- takes cannot collide with rows inserted under AUTO_INCREMENT. The AUTO_INCREMENT
+-- attribute itself stays: Hibernate always supplies the id, and MySQL cannot alter a
+-- column other tables reference by foreign key.
+
+create table addresses_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into addresses_seq select coalesce(max(id), 0) + 51 from addresses;
+
+create table categories_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into categories_seq select coalesce(max(id), 0) + 51 from categories;
+
+create table orders_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into orders_seq select coalesce(max(id), 0) + 51 from orders;
+
+create table order_items_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into order_items_seq select coalesce(max(id), 0) + 51 from order_items;
+
+create table payments_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into payments_seq select coalesce(max(id), 0) + 51 from payments;
+
+create table products_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into products_seq select coalesce(max(id), 0) + 51 from products;
+
+create table reviews_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into reviews_seq select coalesce(max(id), 0) + 51 from reviews;
+
+create table users_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into users_seq select coalesce(max(id), 0) + 51 from users;
+
+-- Resized copies of products.image_url, filled in asynchronously after upload.
+alter table products add column thumbnail_url varchar(255);
+alter table products add column card_url varchar(255);
+alter table products add column detail_url varchar(255);
+
+-- Admin order item filter: status equality + created_at range, ordered by (created_at, id).
+create index idx_order_items_status_created_id on order_items (status, created_at, id);
+create index idx_order_items_created_id on order_items (created_at, id);
@@ -0,0 +1,11 @@
+-- Indexes for the queries the application actually runs. MySQL drops the implicit
+-- foreign-key index on a column once one of these covers it.
+
+-- ProductRepo.findByCategoryId
+create index idx_products_category_id on products (category_id);
+
+-- OrderItemRepo.findByUserIdOrderByIdDesc (order history): seek by user, already in id order
+create index idx_order_items_user_id_id on order_items (user_id, id);
+
+-- UserRepo.findByEmail fetch-joins the address through addresses.user_id
+create index idx_addresses_user_id on addresses (user_id);
@@ -0,0 +1,2 @@
+-- Units available per product; null keeps existing products untracked (unlimited).
+alter table products add column stock integer;
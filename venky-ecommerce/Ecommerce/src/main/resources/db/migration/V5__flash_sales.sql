@@ -0,0 +1,12 @@
+-- Products sold from in-memory counters; one row per running flash sale.
+create table flash_sales (
+    initial_stock integer not null,
+    product_id bigint not null,
+    started_at datetime(6) not null,
+    primary key (product_id)
+) engine=InnoDB;
+
+alter table flash_sales
+    add constraint fk_flash_sales_product
+    foreign key (product_id)
+    references products (id);
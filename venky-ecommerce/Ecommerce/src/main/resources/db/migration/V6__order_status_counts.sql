@@ -0,0 +1,7 @@
+-- Per-status order item counts, persisted periodically from the in-memory counters.
+create table order_status_counts (
+    item_count bigint not null,
+    updated_at datetime(6) not null,
+    status varchar(20) not null,
+    primary key (status)
+) engine=InnoDB;
@@ -0,0 +1,23 @@
+-- Transactional outbox for order item changes, drained by the order event relay.
+create table order_events (
+    previous_status tinyint,
+    quantity integer not null,
+    status tinyint not null,
+    type tinyint not null,
+    created_at datetime(6) not null,
+    id bigint not null,
+    order_id bigint,
+    order_item_id bigint not null,
+    product_id bigint,
+    published_at datetime(6),
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table order_events_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into order_events_seq values ( 1 );
+
+create index idx_order_events_published_id on order_events (published_at, id);
@@ -0,0 +1,32 @@
+-- Hourly and daily sales per product, maintained from order events and a one-time backfill.
+create table sales_rollups (
+    granularity tinyint not null,
+    bucket_start datetime(6) not null,
+    product_id bigint not null,
+    category_id bigint,
+    order_items bigint not null,
+    units bigint not null,
+    revenue decimal(38,2) not null,
+    primary key (granularity, bucket_start, product_id)
+) engine=InnoDB;
+
+create index idx_sales_rollups_product on sales_rollups (product_id, granularity, bucket_start);
+
+create table sales_rollup_state (
+    id integer not null,
+    epoch datetime(6) not null,
+    backfilled_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table sales_rollup_backfill_chunks (
+    first_id bigint not null,
+    end_id bigint not null,
+    order_items bigint not null,
+    completed_at datetime(6) not null,
+    primary key (first_id)
+) engine=InnoDB;
+
+alter table order_events add column rolled_up_at datetime(6);
+
+create index idx_order_events_rolled_up_id on order_events (rolled_up_at, id);
@@ -0,0 +1,2 @@
+-- Lets the month-end report read one order id range's events without scanning the outbox.
+create index idx_order_events_order_item_id on order_events (order_id, order_item_id, id);
@@ -0,0 +1,86 @@
+package Ecommerce.Ecommerce.cache;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(1000, 60);
+
+    @Test
+    void concurrentDuplicatesRunTheActionOnce() throws Exception {
+        int threads = 16;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Response>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return store.execute("user@example.com", "key-1", "cart", () -> {
+                        executions.incrementAndGet();
+                        sleep(100);
+                        return Response.builder().status(200).message("placed").build();
+                    });
+                }));
+            }
+            start.countDown();
+
+            Response first = results.get(0).get();
+            for (Future<Response> result : results) {
+                assertThat(result.get()).isSameAs(first);
+            }
+            assertThat(executions).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        AtomicInteger executions = new AtomicInteger();
+        store.execute("a@example.com", "key-1", "cart", () -> Response.builder().status(executions.incrementAndGet()).build());
+        store.execute("b@example.com", "key-1", "cart", () -> Response.builder().status(executions.incrementAndGet()).build());
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void failedAttemptCanBeRetried() {
+        assertThatThrownBy(() -> store.execute("user@example.com", "key-1", "cart", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        Response retried = store.execute("user@example.com", "key-1", "cart", () -> Response.builder().status(200).build());
+        assertThat(retried.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void reusingKeyForDifferentRequestIsRejected() {
+        store.execute("user@example.com", "key-1", "cart-a", () -> Response.builder().status(200).build());
+
+        assertThatThrownBy(() -> store.execute("user@example.com", "key-1", "cart-b", () -> Response.builder().status(200).build()))
+                .isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
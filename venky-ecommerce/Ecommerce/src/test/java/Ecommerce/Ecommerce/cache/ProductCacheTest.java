@@ -0,0 +1,130 @@
+package Ecommerce.Ecommerce.cache;
+
+import Ecommerce.Ecommerce.dto.ProductDto;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.search.ProductSearchIndex;
+import Ecommerce.Ecommerce.service.AwsS3Service;
+import Ecommerce.Ecommerce.service.StockService;
+import Ecommerce.Ecommerce.service.StockTestSupport;
+import Ecommerce.Ecommerce.service.image.ImageRenditionService;
+import Ecommerce.Ecommerce.service.impl.ProductServiceImpl;
+import Ecommerce.Ecommerce.service.interf.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Product detail reads through the cache, with every write path that changes a product:
+ * admin update and delete evict straight away, stock reservations evict once they commit.
+ */
+@Import({ProductServiceImpl.class, ProductSearchIndex.class, EntityDtoMapper.class})
+class ProductCacheTest extends StockTestSupport {
+
+    @MockitoBean
+    private AwsS3Service awsS3Service;
+
+    @MockitoBean
+    private ImageRenditionService imageRenditionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        Long productId = saveProduct(5);
+        long hitsBefore = productCache.stats().getHitCount();
+        long missesBefore = productCache.stats().getMissCount();
+
+        read(productId);
+        read(productId);
+        read(productId);
+
+        assertThat(productCache.stats().getMissCount() - missesBefore).isEqualTo(1);
+        assertThat(productCache.stats().getHitCount() - hitsBefore).isEqualTo(2);
+    }
+
+    @Test
+    void callersCannotChangeTheCachedProduct() {
+        Long productId = saveProduct(5);
+
+        ProductDto first = read(productId);
+        first.setName("Edited by a caller");
+        first.setStock(0);
+
+        ProductDto second = read(productId);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("Item");
+        assertThat(second.getStock()).isEqualTo(5);
+    }
+
+    @Test
+    void updateEvictsTheCachedProduct() {
+        Long productId = saveProduct(5);
+        assertThat(read(productId).getPrice()).isEqualByComparingTo("10");
+
+        productService.updateProduct(productId, null, null, "Desk lamp", null, new BigDecimal("12.50"), 8);
+
+        ProductDto updated = read(productId);
+        assertThat(updated.getName()).isEqualTo("Desk lamp");
+        assertThat(updated.getPrice()).isEqualByComparingTo("12.50");
+        assertThat(updated.getStock()).isEqualTo(8);
+    }
+
+    @Test
+    void deleteEvictsTheCachedProduct() {
+        Long productId = saveProduct(5);
+        read(productId);
+
+        productService.deleteProduct(productId);
+
+        assertThatThrownBy(() -> read(productId)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void reservationEvictsOnlyOnceItCommits() {
+        Long productId = saveProduct(5);
+        read(productId);
+
+        inTransaction(false, () -> {
+            stockService.reserve(Map.of(productId, 2));
+            // not committed yet: other readers still see the old stock, and so does the cache
+            assertThat(read(productId).getStock()).isEqualTo(5);
+        });
+        assertThat(read(productId).getStock()).isEqualTo(3);
+
+        inTransaction(true, () -> stockService.reserve(Map.of(productId, 1)));
+        assertThat(read(productId).getStock()).isEqualTo(3);
+    }
+
+    private ProductDto read(Long productId) {
+        return productService.getProductById(productId).getProduct();
+    }
+
+    private void inTransaction(boolean rollback, Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            action.run();
+            if (rollback) {
+                tx.setRollbackOnly();
+            }
+        });
+    }
+}
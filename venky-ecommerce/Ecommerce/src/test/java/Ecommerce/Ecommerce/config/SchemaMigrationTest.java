@@ -0,0 +1,37 @@
+package Ecommerce.Ecommerce.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+// the migrations are MySQL DDL: run them on H2 in MySQL mode and validate with the MySQL dialect, as deployed
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SchemaIndexVerifier.class)
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private SchemaIndexVerifier schemaIndexVerifier;
+
+    // the context only starts if the migrated schema passes Hibernate's validation
+    @Test
+    void migrationsProduceTheSchemaTheEntitiesAndIndexChecksExpect() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion())
+                .isEqualTo(String.valueOf(flyway.info().applied().length));
+        assertThatCode(() -> schemaIndexVerifier.run(null)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,178 @@
+package Ecommerce.Ecommerce.event;
+
+import Ecommerce.Ecommerce.dto.OrderEventDto;
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fan-out to SSE clients, with every emitter replaced by one that records what it is sent
+ * instead of writing to a response. Sends run on virtual threads, so assertions wait for them.
+ */
+class OrderEventBroadcasterTest {
+
+    private OrderEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    void slowClientLosesItsOldestEventsAndIsToldHowMany() throws Exception {
+        broadcaster = broadcaster(3, 10);
+        RecordingEmitter slow = (RecordingEmitter) broadcaster.connect();
+        RecordingEmitter fast = (RecordingEmitter) broadcaster.connect();
+        slow.holdFirstSend();
+
+        broadcaster.broadcast(event(1));
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        // a client that keeps up gets everything, whatever the slow one is doing
+        for (long id = 2; id <= 6; id++) {
+            broadcaster.broadcast(event(id));
+            int expected = (int) id;
+            await(() -> fast.sent().size() == expected);
+        }
+        assertThat(fast.sent()).allMatch(sent -> sent.startsWith("id:"));
+
+        // 2 and 3 were pushed out of the three-event buffer while event 1 was being written
+        slow.release.countDown();
+        await(() -> slow.sent().size() == 5);
+        assertThat(slow.sent()).containsExactly(
+                rendered(event(1)),
+                "event:dropped\ndata:2\n\n",
+                rendered(event(4)),
+                rendered(event(5)),
+                rendered(event(6)));
+
+        // the count starts again from zero once it has been reported
+        broadcaster.broadcast(event(7));
+        await(() -> slow.sent().size() == 6);
+        assertThat(slow.sent().get(5)).isEqualTo(rendered(event(7)));
+    }
+
+    @Test
+    void connectionsBeyondTheLimitAreRefused() {
+        broadcaster = broadcaster(3, 2);
+        broadcaster.connect();
+        broadcaster.connect();
+
+        assertThatThrownBy(() -> broadcaster.connect())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Too many order event streams");
+        assertThat(broadcaster.clientCount()).isEqualTo(2);
+    }
+
+    @Test
+    void heartbeatRemovesClientsThatCanNoLongerBeWritten() throws Exception {
+        broadcaster = broadcaster(3, 10);
+        RecordingEmitter live = (RecordingEmitter) broadcaster.connect();
+        RecordingEmitter dead = (RecordingEmitter) broadcaster.connect();
+        dead.disconnect();
+
+        broadcaster.heartbeat();
+
+        await(() -> broadcaster.clientCount() == 1);
+        await(() -> live.sent().size() == 1);
+        assertThat(live.sent()).containsExactly(":keep-alive\n\n");
+        assertThat(dead.failure).isInstanceOf(IOException.class);
+
+        broadcaster.broadcast(event(1));
+        await(() -> live.sent().size() == 2);
+        assertThat(dead.sent()).isEmpty();
+    }
+
+    private static OrderEventBroadcaster broadcaster(int bufferSize, int maxClients) {
+        return new OrderEventBroadcaster(new OrderEventBus(), bufferSize, maxClients, 60_000) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private static OrderEventDto event(long id) {
+        return new OrderEventDto(id, OrderEventType.ITEM_PLACED, 1L, id, 1L, 1L, 1,
+                OrderStatus.PENDING, null, LocalDateTime.of(2026, 1, 1, 12, 0));
+    }
+
+    private static String rendered(OrderEventDto event) {
+        return "id:" + event.id() + "\nevent:ITEM_PLACED\ndata:" + event + "\n\n";
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for sends").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /** Keeps each event as the text that would go on the wire; can stall its first send or fail every send. */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean holding;
+        private volatile boolean disconnected;
+        private volatile Throwable failure;
+
+        void holdFirstSend() {
+            holding = true;
+        }
+
+        void disconnect() {
+            disconnected = true;
+        }
+
+        synchronized List<String> sent() {
+            return List.copyOf(sent);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            if (holding) {
+                holding = false;
+                sending.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            String text = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining());
+            synchronized (this) {
+                sent.add(text);
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failure = ex;
+            super.completeWithError(ex);
+        }
+    }
+}
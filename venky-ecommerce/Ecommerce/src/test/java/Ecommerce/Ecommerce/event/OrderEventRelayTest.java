@@ -0,0 +1,109 @@
+package Ecommerce.Ecommerce.event;
+
+import Ecommerce.Ecommerce.entity.OrderEvent;
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "order-events.relay.batch-size=4")
+@Import({OrderEventRelay.class, OrderEventBus.class, EntityDtoMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderEventRelayTest {
+
+    private static final int EVENT_COUNT = 10;
+
+    @Autowired
+    private OrderEventRelay relay;
+
+    @Autowired
+    private OrderEventBus bus;
+
+    @Autowired
+    private OrderEventRepo orderEventRepo;
+
+    @AfterEach
+    void tearDown() {
+        orderEventRepo.deleteAll();
+    }
+
+    @Test
+    void slowSubscriberHoldsEventsInTheOutboxAndStillGetsAllInOrder() throws Exception {
+        saveEvents();
+        List<Long> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(EVENT_COUNT);
+
+        try (OrderEventBus.Subscription ignored = bus.subscribe("slow", 2, event -> {
+            awaitQuietly(unblock);
+            received.add(event.id());
+            done.countDown();
+        })) {
+            relay.relay();
+            // at most the one being handled plus a full queue left the outbox
+            assertThat(orderEventRepo.findByPublishedAtIsNullOrderByIdAsc(Limit.of(EVENT_COUNT)))
+                    .hasSizeGreaterThanOrEqualTo(EVENT_COUNT - 3);
+
+            unblock.countDown();
+            while (!done.await(50, TimeUnit.MILLISECONDS)) {
+                relay.relay();
+            }
+        }
+
+        assertThat(received).hasSize(EVENT_COUNT).isSorted().doesNotHaveDuplicates();
+        assertThat(orderEventRepo.findAll()).allMatch(event -> event.getPublishedAt() != null);
+    }
+
+    @Test
+    void expiredEventsAreDeletedOnceRolledUp() {
+        saveEvents();
+        relay.relay();
+        List<Long> ids = orderEventRepo.findAll().stream().map(OrderEvent::getId).sorted().toList();
+        orderEventRepo.markPublished(ids, LocalDateTime.now().minusDays(30));
+        orderEventRepo.markRolledUp(ids.subList(0, 6), LocalDateTime.now());
+
+        relay.deleteExpired();
+
+        // events the sales rollups have not seen yet stay, however old
+        assertThat(orderEventRepo.findAll()).extracting(OrderEvent::getId)
+                .containsExactlyInAnyOrderElementsOf(ids.subList(6, EVENT_COUNT));
+    }
+
+    private void saveEvents() {
+        List<OrderEvent> events = new ArrayList<>();
+        for (long i = 1; i <= EVENT_COUNT; i++) {
+            OrderEvent event = new OrderEvent();
+            event.setType(OrderEventType.ITEM_PLACED);
+            event.setOrderItemId(i);
+            event.setQuantity(1);
+            event.setStatus(OrderStatus.PENDING);
+            events.add(event);
+        }
+        orderEventRepo.saveAll(events);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package Ecommerce.Ecommerce.pagination;
+
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void idCursorsRoundTripAndAreUrlSafe() {
+        for (long id : new long[]{0, 1, 42, Long.MAX_VALUE}) {
+            String cursor = CursorCodec.encodeId(id);
+            assertThat(cursor).matches("[A-Za-z0-9_-]+");
+            assertThat(CursorCodec.decodeId(cursor)).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void missingCursorMeansTheFirstPage() {
+        assertThat(CursorCodec.decodeId(null)).isNull();
+        assertThat(CursorCodec.decodeId("")).isNull();
+        assertThat(CursorCodec.decodeId("  ")).isNull();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String[] malformed = {
+                "not base64!",
+                encode("42"),
+                encode("seek:2026-01-01T00:00|42"),
+                encode("id:"),
+                encode("id:forty-two"),
+        };
+        for (String cursor : malformed) {
+            assertThatThrownBy(() -> CursorCodec.decodeId(cursor))
+                    .as(cursor)
+                    .isInstanceOf(InvalidCredentialsException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,173 @@
+package Ecommerce.Ecommerce.report;
+
+import Ecommerce.Ecommerce.dto.CohortRevenueDto;
+import Ecommerce.Ecommerce.dto.MonthEndReportDto;
+import Ecommerce.Ecommerce.dto.ReportStatusDto;
+import Ecommerce.Ecommerce.dto.StatusDwellDto;
+import Ecommerce.Ecommerce.entity.Order;
+import Ecommerce.Ecommerce.entity.OrderEvent;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.event.OrderEventOutbox;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
+import Ecommerce.Ecommerce.repository.OrderRepo;
+import Ecommerce.Ecommerce.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+// the report opens its own pool from spring.datasource, so the test database needs a fixed url
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:reports;DB_CLOSE_DELAY=-1",
+        "reports.partition-size=1", "reports.fetch-size=100"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReportEngine.class, OrderEventOutbox.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportEngineTest {
+
+    private static final BigDecimal ITEM_PRICE = new BigDecimal("10.00");
+    private static final long HOUR = 3_600_000L;
+
+    @Autowired
+    private ReportEngine reportEngine;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private OrderEventRepo orderEventRepo;
+
+    @Autowired
+    private OrderItemRepo orderItemRepo;
+
+    @Autowired
+    private OrderRepo orderRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        orderEventRepo.deleteAll();
+        orderRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void reportsBasketsCohortsAndDwellTimesAcrossPartitions() throws Exception {
+        User user = userRepo.save(User.builder().name("Asha").email("asha@example.com")
+                .password("secret").phoneNumber("5550100").build());
+        List<OrderItem> basket = placeOrder(user, 3);
+        placeOrder(null, 1);
+
+        OrderItem shipped = basket.get(0);
+        changeStatus(shipped, OrderStatus.PENDING, OrderStatus.CONFIRMED, 2 * HOUR);
+        changeStatus(shipped, OrderStatus.CONFIRMED, OrderStatus.SHIPPED, 5 * HOUR);
+        changeStatus(basket.get(1), OrderStatus.PENDING, OrderStatus.CANCELLED, HOUR);
+
+        ReportStatusDto status = awaitReport(reportEngine.startMonthEndReport().getReportStatus().getId());
+
+        assertThat(status.getState()).isEqualTo("COMPLETED");
+        assertThat(status.getTotalPartitions()).isGreaterThanOrEqualTo(2);
+        assertThat(status.getCompletedPartitions()).isEqualTo(status.getTotalPartitions());
+        assertThat(status.getRowsScanned()).isEqualTo(4);
+
+        MonthEndReportDto report = status.getReport();
+        assertThat(report.getOrders()).isEqualTo(2);
+        assertThat(report.getOrderItems()).isEqualTo(4);
+        assertThat(report.getPlacedValue()).isEqualByComparingTo("40.00");
+        assertThat(report.getRevenue()).isEqualByComparingTo("30.00");
+        assertThat(report.getAverageItemsPerOrder()).isEqualTo(2.0);
+        assertThat(report.getAverageOrderValue()).isEqualByComparingTo("20.00");
+        assertThat(report.getItemsPerOrderHistogram()).startsWith(1L, 0L, 1L);
+
+        // only the signed-in customer's basket has a cohort, and the cancelled item earns nothing
+        assertThat(report.getCohorts()).singleElement()
+                .extracting(CohortRevenueDto::orderItems).isEqualTo(2L);
+        assertThat(report.getCohorts().get(0).revenueByMonth().get(0)).isEqualByComparingTo("20.00");
+
+        assertThat(report.getItemsWithStatusHistory()).isEqualTo(4);
+        assertThat(report.getStatusDwell()).extracting(StatusDwellDto::status)
+                .containsExactly(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        StatusDwellDto pending = report.getStatusDwell().get(0);
+        assertThat(pending.transitions()).isEqualTo(2);
+        assertThat(pending.averageHours()).isCloseTo(1.5, offset(0.01));
+        assertThat(pending.maxHours()).isCloseTo(2.0, offset(0.01));
+        assertThat(report.getStatusDwell().get(1).averageHours()).isCloseTo(3.0, offset(0.01));
+
+        // a finished report can no longer be cancelled
+        assertThatThrownBy(() -> reportEngine.cancelReport(status.getId())).isInstanceOf(InvalidCredentialsException.class);
+        assertThatThrownBy(() -> reportEngine.getReport("missing")).isInstanceOf(NotFoundException.class);
+    }
+
+    private List<OrderItem> placeOrder(User user, int itemCount) {
+        return new TransactionTemplate(transactionManager).execute(tx -> {
+            Order order = new Order();
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = 0; i < itemCount; i++) {
+                OrderItem item = new OrderItem();
+                item.setUser(user);
+                item.setQuantity(1);
+                item.setPrice(ITEM_PRICE);
+                item.setStatus(OrderStatus.PENDING);
+                item.setOrder(order);
+                items.add(item);
+            }
+            order.setOrderItemList(items);
+            order.setTotalPrice(ITEM_PRICE.multiply(BigDecimal.valueOf(itemCount)));
+            Order saved = orderRepo.save(order);
+            orderEventOutbox.itemsPlaced(saved);
+            return saved.getOrderItemList();
+        });
+    }
+
+    // the change is recorded as if it happened the given time after the item was ordered
+    private void changeStatus(OrderItem detached, OrderStatus previous, OrderStatus next, long afterMillis) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            OrderItem item = orderItemRepo.findById(detached.getId()).orElseThrow();
+            item.setStatus(next);
+            OrderEvent event = new OrderEvent();
+            event.setType(OrderEventType.STATUS_CHANGED);
+            event.setOrderId(item.getOrder().getId());
+            event.setOrderItemId(item.getId());
+            event.setQuantity(item.getQuantity());
+            event.setStatus(next);
+            event.setPreviousStatus(previous);
+            event.setCreatedAt(item.getCreatedAt().plusNanos(afterMillis * 1_000_000));
+            orderEventRepo.save(event);
+        });
+    }
+
+    private ReportStatusDto awaitReport(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ReportStatusDto status = reportEngine.getReport(id).getReportStatus();
+        while (status.getState().equals("RUNNING")) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+            status = reportEngine.getReport(id).getReportStatus();
+        }
+        return status;
+    }
+}
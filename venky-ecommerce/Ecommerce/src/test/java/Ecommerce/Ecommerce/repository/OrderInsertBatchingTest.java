@@ -0,0 +1,60 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.config.JpaBatchingConfig;
+import Ecommerce.Ecommerce.entity.Order;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JpaBatchingConfig.class)
+class OrderInsertBatchingTest {
+
+    private static final int ITEM_COUNT = 40;
+
+    @Autowired
+    private OrderRepo orderRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void orderWithManyItemsIsWrittenInAHandfulOfStatements() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        Order order = new Order();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            OrderItem item = new OrderItem();
+            item.setQuantity(1);
+            item.setPrice(BigDecimal.TEN);
+            item.setStatus(OrderStatus.PENDING);
+            item.setOrder(order);
+            items.add(item);
+        }
+        order.setOrderItemList(items);
+        order.setTotalPrice(BigDecimal.TEN.multiply(BigDecimal.valueOf(ITEM_COUNT)));
+
+        statistics.clear();
+        orderRepo.save(order);
+        entityManager.flush();
+
+        // one batched INSERT per table plus a few pooled sequence fetches,
+        // instead of one INSERT per row with IDENTITY keys
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEM_COUNT + 1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+}
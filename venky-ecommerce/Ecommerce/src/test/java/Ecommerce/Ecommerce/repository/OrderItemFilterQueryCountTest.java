@@ -0,0 +1,147 @@
+package Ecommerce.Ecommerce.repository;
+
+import Ecommerce.Ecommerce.dto.OrderItemDto;
+import Ecommerce.Ecommerce.entity.Address;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.enums.UserRole;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.pagination.CursorCodec;
+import Ecommerce.Ecommerce.specification.OrderItemSpecification;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(EntityDtoMapper.class)
+class OrderItemFilterQueryCountTest {
+
+    @Autowired
+    private OrderItemRepo orderItemRepo;
+
+    @Autowired
+    private EntityDtoMapper entityDtoMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < 5; u++) {
+            User user = entityManager.persist(User.builder()
+                    .name("user" + u)
+                    .email("user" + u + "@example.com")
+                    .password("secret")
+                    .phoneNumber("555000" + u)
+                    .role(UserRole.USER)
+                    .build());
+            Address address = new Address();
+            address.setCity("City " + u);
+            address.setUser(user);
+            entityManager.persist(address);
+
+            for (int p = 0; p < 4; p++) {
+                Product product = new Product();
+                product.setName("Product " + u + "-" + p);
+                product.setPrice(BigDecimal.ONE);
+                entityManager.persist(product);
+
+                OrderItem item = new OrderItem();
+                item.setUser(user);
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setPrice(BigDecimal.ONE);
+                item.setStatus(OrderStatus.PENDING);
+                entityManager.persist(item);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void filteredPageLoadsInConstantStatements() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Specification<OrderItem> spec = OrderItemSpecification.hasStatus(OrderStatus.PENDING)
+                .and(OrderItemSpecification.fetchProductAndUser());
+        Page<OrderItem> page = orderItemRepo.findAll(spec, PageRequest.of(0, 15, Sort.by(Sort.Direction.DESC, "id")));
+        List<OrderItemDto> dtos = page.getContent().stream()
+                .map(entityDtoMapper::mapOrderItemToDtoPlusProductAndUser)
+                .toList();
+
+        assertThat(dtos).hasSize(15);
+        assertThat(dtos).allSatisfy(dto -> assertThat(dto.getUser().getAddress()).isNotNull());
+        assertThat(page.getTotalElements()).isEqualTo(20);
+        // one select for the page content, one for the count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void slicePageSkipsCountQuery() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        Specification<OrderItem> spec = OrderItemSpecification.hasStatus(OrderStatus.PENDING)
+                .and(OrderItemSpecification.fetchProductAndUser());
+        Slice<OrderItem> slice = orderItemRepo.findBy(spec, query -> query.slice(PageRequest.of(0, 15, Sort.by(Sort.Direction.DESC, "id"))));
+
+        assertThat(slice.getContent()).hasSize(15);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void seekPagesVisitEveryRowOnceWithoutCounting() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        Sort order = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        Set<Long> seen = new HashSet<>();
+        CursorCodec.SeekPosition position = null;
+        int pages = 0;
+        while (true) {
+            Specification<OrderItem> spec = OrderItemSpecification.hasStatus(OrderStatus.PENDING)
+                    .and(OrderItemSpecification.seekAfter(position))
+                    .and(OrderItemSpecification.fetchProductAndUser());
+            List<OrderItem> page = orderItemRepo.findBy(spec, query -> query.sortBy(order).limit(7).all());
+            pages++;
+            page.forEach(item -> assertThat(seen.add(item.getId())).isTrue());
+            if (page.size() < 7) {
+                break;
+            }
+            OrderItem last = page.get(page.size() - 1);
+            // round-trip through the opaque cursor like a client would
+            position = CursorCodec.decodeSeek(CursorCodec.encodeSeek(last.getCreatedAt(), last.getId()));
+        }
+
+        assertThat(seen).hasSize(20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,144 @@
+package Ecommerce.Ecommerce.search;
+
+import Ecommerce.Ecommerce.dto.ProductDto;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepo productRepo = Mockito.mock(ProductRepo.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(productRepo, new EntityDtoMapper());
+
+    @Test
+    void tokenizerLowercasesAndSplitsOnNonAlphanumerics() {
+        assertThat(ProductSearchIndex.tokenize("USB-C  Charger, 65W!")).containsExactly("usb", "c", "charger", "65w");
+        assertThat(ProductSearchIndex.tokenize("  -- ")).isEmpty();
+        assertThat(ProductSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void nameHitsOutrankDescriptionHits() {
+        index.index(product(1L, "Desk lamp", "Pairs well with a walnut desk"));
+        index.index(product(2L, "Walnut desk", "Solid wood"));
+
+        assertThat(ids(index.search("walnut"))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void rareTermsOutweighCommonOnes() {
+        index.index(product(2L, "Jacket", "blue"));
+        index.index(product(1L, "Blue coat", "jacket lining"));
+        index.index(product(3L, "Blue scarf", null));
+        index.index(product(4L, "Blue hat", null));
+
+        // both match both tokens once in the name and once in the description; the
+        // name hit on the rarer "jacket" is worth more than the name hit on "blue"
+        assertThat(ids(index.search("blue jacket"))).containsExactly(2L, 1L);
+        assertThat(index.search("jacket scarf")).isEmpty();
+    }
+
+    @Test
+    void exactTermsOutrankPrefixMatches() {
+        index.index(product(1L, "Phone holder", null));
+        index.index(product(2L, "Phones", null));
+
+        assertThat(ids(index.search("phone"))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("pho"))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void removedAndReplacedProductsDropTheirOldTerms() {
+        index.index(product(1L, "Leather wallet", null));
+        index.index(product(2L, "Leather belt", null));
+
+        index.index(product(1L, "Canvas wallet", null));
+        index.remove(2L);
+
+        assertThat(index.search("leather")).isEmpty();
+        assertThat(ids(index.search("canvas wallet"))).containsExactly(1L);
+    }
+
+    @Test
+    void resultsCarryNoStockAndAreCopies() {
+        ProductDto product = product(1L, "Kettle", null);
+        product.setStock(7);
+        index.index(product);
+        product.setName("Mutated after indexing");
+
+        ProductDto first = index.search("kettle").get(0);
+        assertThat(first.getStock()).isNull();
+        assertThat(first.getName()).isEqualTo("Kettle");
+
+        first.setName("Mutated by a caller");
+        assertThat(index.search("kettle").get(0).getName()).isEqualTo("Kettle");
+    }
+
+    @Test
+    void compactsOnceTombstonesOutnumberLiveProducts() {
+        index.index(product(1L, "Stable item", null));
+        for (int i = 0; i <= 10_000; i++) {
+            index.index(product(2L, "Churning item " + i, null));
+        }
+
+        // the 10,000th tombstone triggers the rebuild down to the two live products
+        assertThat(index.ordinalCount()).isEqualTo(2);
+        assertThat(ids(index.search("item"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.search("churning 10000"))).containsExactly(2L);
+        assertThat(index.search("churning 9999")).isEmpty();
+    }
+
+    @Test
+    void buildDoesNotBlockSearchesAndKeepsUpdatesMadeDuringTheScan() {
+        index.index(product(9L, "Old lamp", null));
+        when(productRepo.findAllByOrderByIdDesc(any())).thenAnswer(invocation -> {
+            // runs mid-scan: a search from another thread must not wait for the build
+            List<ProductDto> during = CompletableFuture.supplyAsync(() -> index.search("lamp"))
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(ids(during)).containsExactly(9L);
+            index.index(product(3L, "New lamp", null));
+            index.remove(2L);
+            return List.of(entity(2L, "Floor lamp"), entity(1L, "Table lamp"));
+        });
+        when(productRepo.findByIdLessThanOrderByIdDesc(anyLong(), any())).thenReturn(List.of());
+
+        index.build();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids(index.search("lamp"))).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    private static ProductDto product(Long id, String name, String description) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(BigDecimal.TEN);
+        return product;
+    }
+
+    private static Product entity(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(5);
+        return product;
+    }
+
+    private static List<Long> ids(List<ProductDto> products) {
+        return products.stream().map(ProductDto::getId).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package Ecommerce.Ecommerce.security;
+
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.UserRole;
+import Ecommerce.Ecommerce.repository.UserRepo;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication: the previous filter logic (three signature
+ * verifications and payload parses per request) against the current filter, which
+ * verifies a token once and serves repeat requests from the claims cache.
+ * <p>
+ * Run {@link #main} from the test classpath, e.g. from the IDE.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "benchmarksecret123456789benchmarksecret123456789";
+    private static final String EMAIL = "bench@example.com";
+
+    private final FilterChain noOpChain = (request, response) -> { };
+
+    private SecretKey key;
+    private String token;
+    private JwtAuthFilter filter;
+    private PreviousJwtAuthFilter previousFilter;
+    private CustomUserDetailsService userDetailsService;
+
+    @Setup
+    public void setUp() {
+        key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secreteJwtString", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        token = jwtUtils.generateToken(EMAIL);
+
+        User user = User.builder().email(EMAIL).password("secret").role(UserRole.USER).build();
+        UserRepo userRepo = Mockito.mock(UserRepo.class);
+        Mockito.when(userRepo.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        userDetailsService = new CustomUserDetailsService(userRepo, 60, 10_000);
+
+        filter = new JwtAuthFilter(jwtUtils, userDetailsService);
+        previousFilter = new PreviousJwtAuthFilter();
+    }
+
+    @Benchmark
+    public Object previousFilter() throws Exception {
+        return authenticate(previousFilter);
+    }
+
+    @Benchmark
+    public Object currentFilter() throws Exception {
+        return authenticate(filter);
+    }
+
+    private Object authenticate(OncePerRequestFilter authFilter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        authFilter.doFilter(request, new MockHttpServletResponse(), noOpChain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /** The filter logic before claims caching: getUsernameFromToken + isTokenValid (subject and expiry). */
+    private final class PreviousJwtAuthFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String token = request.getHeader("Authorization").substring(7);
+            String username = parse(token).getSubject();
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            boolean valid = parse(token).getSubject().equals(userDetails.getUsername())
+                    && !parse(token).getExpiration().before(new Date());
+            if (StringUtils.hasText(username) && valid) {
+                log.info("VALID JWT FOR {}", username);
+                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private Claims parse(String jwt) {
+            return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
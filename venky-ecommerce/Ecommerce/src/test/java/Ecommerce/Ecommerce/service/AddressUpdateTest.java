@@ -0,0 +1,120 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.AddressDto;
+import Ecommerce.Ecommerce.entity.Address;
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.UserRole;
+import Ecommerce.Ecommerce.repository.AddressRepo;
+import Ecommerce.Ecommerce.repository.UserRepo;
+import Ecommerce.Ecommerce.security.CustomUserDetailsService;
+import Ecommerce.Ecommerce.service.impl.AddressServiceImpl;
+import Ecommerce.Ecommerce.service.interf.AddressService;
+import Ecommerce.Ecommerce.service.interf.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The login user handed to the address service is the cached, detached principal that
+ * concurrent requests share; saving an address must not edit it.
+ */
+@DataJpaTest
+@Import(AddressServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AddressUpdateTest {
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private AddressRepo addressRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User principal;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Buyer");
+        user.setEmail("buyer@example.com");
+        user.setPassword("secret");
+        user.setPhoneNumber("5550100");
+        user.setRole(UserRole.USER);
+        userRepo.save(user);
+        principal = userRepo.findByEmail("buyer@example.com").orElseThrow();
+        when(userService.getLoginUser()).thenReturn(principal);
+    }
+
+    @AfterEach
+    void tearDown() {
+        addressRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void createsAndUpdatesTheStoredAddressWithoutTouchingThePrincipal() {
+        assertThat(addressService.saveAndUpdateAddress(address("1 Main St", "Springfield")).getMessage())
+                .isEqualTo("Address successfully created");
+        assertThat(principal.getAddress()).isNull();
+
+        // next request: the principal is reloaded and now carries the stored address
+        principal = userRepo.findByEmail("buyer@example.com").orElseThrow();
+        when(userService.getLoginUser()).thenReturn(principal);
+        assertThat(addressService.saveAndUpdateAddress(address(null, "Shelbyville")).getMessage())
+                .isEqualTo("Address successfully updated");
+        assertThat(principal.getAddress().getCity()).isEqualTo("Springfield");
+
+        assertThat(addressRepo.findAll()).singleElement().satisfies(saved -> {
+            assertThat(saved.getStreet()).isEqualTo("1 Main St");
+            assertThat(saved.getCity()).isEqualTo("Shelbyville");
+        });
+    }
+
+    @Test
+    void cachedUserIsEvictedOnlyAfterCommit() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            addressService.saveAndUpdateAddress(address("1 Main St", "Springfield"));
+            verify(customUserDetailsService, never()).evict(anyString());
+        });
+        verify(customUserDetailsService).evict("buyer@example.com");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            addressService.saveAndUpdateAddress(address("2 Side St", null));
+            tx.setRollbackOnly();
+        });
+        verify(customUserDetailsService).evict("buyer@example.com");
+        assertThat(addressRepo.findAll()).extracting(Address::getStreet).containsExactly("1 Main St");
+    }
+
+    private static AddressDto address(String street, String city) {
+        AddressDto addressDto = new AddressDto();
+        addressDto.setStreet(street);
+        addressDto.setCity(city);
+        return addressDto;
+    }
+}
@@ -0,0 +1,145 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.service.image.ImageStore;
+import Ecommerce.Ecommerce.service.image.LocalImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AwsS3ServiceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private ImageStore imageStore;
+    private AwsS3Service awsS3Service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageStore = spy(new LocalImageStore(tempDir.toString(), "/images/"));
+        awsS3Service = new AwsS3Service(imageStore, 1000);
+    }
+
+    @Test
+    void identicalUploadsAreWrittenOnce() throws IOException {
+        String first = awsS3Service.saveImageToS3(photo("front.JPG", "same bytes"));
+        String second = awsS3Service.saveImageToS3(photo("copy-of-front.jpg", "same bytes"));
+
+        assertThat(first).startsWith("/images/images/sha256/").endsWith(".jpg").isEqualTo(second);
+        verify(imageStore, times(1)).store(anyString(), any(), anyLong(), anyString());
+        try (InputStream in = imageStore.open(first)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("same bytes");
+        }
+    }
+
+    @Test
+    void imagesStoredBeforeARestartAreNotUploadedAgain() {
+        String before = awsS3Service.saveImageToS3(photo("front.jpg", "same bytes"));
+
+        // a new service starts with an empty dedup index and finds the object in the store
+        AwsS3Service restarted = new AwsS3Service(imageStore, 1000);
+        assertThat(restarted.saveImageToS3(photo("front.jpg", "same bytes"))).isEqualTo(before);
+        verify(imageStore, times(1)).store(anyString(), any(), anyLong(), anyString());
+    }
+
+    @Test
+    void differentContentWithTheSameNameGetsItsOwnObject() {
+        String first = awsS3Service.saveImageToS3(photo("front.jpg", "first image"));
+        String second = awsS3Service.saveImageToS3(photo("front.jpg", "second image"));
+
+        assertThat(first).isNotEqualTo(second);
+        verify(imageStore, times(2)).store(anyString(), any(), anyLong(), anyString());
+    }
+
+    @Test
+    void concurrentIdenticalUploadsShareOneWrite() throws Exception {
+        int threads = 8;
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            storing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(imageStore).store(anyString(), any(), anyLong(), anyString());
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> awsS3Service.saveImageToS3(photo("front.jpg", "same bytes"))));
+            }
+            assertThat(storing.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            release.countDown();
+
+            String url = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(url);
+            }
+            verify(imageStore, times(1)).store(anyString(), any(), anyLong(), anyString());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedUploadPropagatesAndCanBeRetried() {
+        doThrow(new UncheckedIOException("disk full", new IOException("disk full")))
+                .doCallRealMethod()
+                .when(imageStore).store(anyString(), any(), anyLong(), anyString());
+
+        assertThatThrownBy(() -> awsS3Service.saveImageToS3(photo("front.jpg", "same bytes")))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessage("disk full");
+
+        String url = awsS3Service.saveImageToS3(photo("front.jpg", "same bytes"));
+        assertThat(Files.isRegularFile(tempDir.resolve(url.substring("/images/".length())))).isTrue();
+    }
+
+    @Test
+    void unreadableUploadIsReportedWithItsCause() throws IOException {
+        MockMultipartFile broken = new MockMultipartFile("image", "front.jpg", "image/jpeg", new byte[0]) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThatThrownBy(() -> awsS3Service.saveImageToS3(broken))
+                .isInstanceOf(RuntimeException.class)
+                .hasRootCauseInstanceOf(IOException.class)
+                .hasRootCauseMessage("connection reset");
+        verify(imageStore, never()).store(anyString(), any(), anyLong(), anyString());
+    }
+
+    private static MockMultipartFile photo(String fileName, String content) {
+        return new MockMultipartFile("image", fileName, "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
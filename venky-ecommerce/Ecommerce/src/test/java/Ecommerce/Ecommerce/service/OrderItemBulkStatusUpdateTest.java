@@ -0,0 +1,191 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.BulkStatusUpdateRequest;
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.entity.Order;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.enums.OrderEventType;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.exception.OutOfStockException;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
+import Ecommerce.Ecommerce.service.impl.OrderItemServiceImpl;
+import Ecommerce.Ecommerce.service.interf.OrderItemService;
+import Ecommerce.Ecommerce.service.interf.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = {"order.bulk-update.chunk-size=3", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import({OrderItemServiceImpl.class, EntityDtoMapper.class})
+class OrderItemBulkStatusUpdateTest extends StockTestSupport {
+
+    private static final int ITEM_COUNT = 10;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private OrderPlacementPipeline orderPlacementPipeline;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderItemRepo orderItemRepo;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Test
+    void updatesByIdsInChunksAndCountsOnlyChangedRows() {
+        Long productId = saveProduct(0);
+        List<Long> ids = saveOrderItems(productId, 2);
+
+        assertThat(bulkUpdate("CONFIRMED", ids).getAffectedRows()).isEqualTo(ITEM_COUNT);
+        assertThat(bulkUpdate("CONFIRMED", ids).getAffectedRows()).isZero();
+        assertThat(orderItemRepo.findAll()).allMatch(item -> item.getStatus() == OrderStatus.CONFIRMED);
+        assertThat(stock(productId)).isZero();
+    }
+
+    @Test
+    void skipsItemsThatCannotMoveToTheNewStatus() {
+        Long productId = saveProduct(0);
+        List<Long> ids = saveOrderItems(productId, 1);
+        bulkUpdate("CONFIRMED", ids.subList(0, 4));
+
+        // only confirmed items may ship; the six still pending are left alone
+        assertThat(bulkUpdate("SHIPPED", ids).getAffectedRows()).isEqualTo(4);
+        assertThat(bulkUpdate("DELIVERED", ids).getAffectedRows()).isEqualTo(4);
+
+        assertThat(orderStatusCounter.snapshot())
+                .containsEntry(OrderStatus.PENDING, 6L)
+                .containsEntry(OrderStatus.CONFIRMED, 0L)
+                .containsEntry(OrderStatus.SHIPPED, 0L)
+                .containsEntry(OrderStatus.DELIVERED, 4L);
+        assertThat(orderStatusCounter.snapshot()).isEqualTo(countedInDatabase());
+        // one outbox event per item actually moved
+        assertThat(orderEventRepo.findAll())
+                .hasSize(12)
+                .allMatch(event -> event.getType() == OrderEventType.STATUS_CHANGED && event.getProductId().equals(productId));
+    }
+
+    @Test
+    void cancellingAndReopeningMovesStock() {
+        Long productId = saveProduct(0);
+        List<Long> ids = saveOrderItems(productId, 2);
+
+        bulkUpdate("CANCELLED", ids);
+        assertThat(stock(productId)).isEqualTo(2 * ITEM_COUNT);
+
+        // reopen through the filter instead of ids
+        BulkStatusUpdateRequest reopen = new BulkStatusUpdateRequest();
+        reopen.setStatus("PENDING");
+        reopen.setFilterStatus("CANCELLED");
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertThat(orderItemService.bulkUpdateOrderItemStatus(reopen).getAffectedRows()).isEqualTo(ITEM_COUNT);
+        // matches are read as ids, never as order item, product or user entities
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(stock(productId)).isZero();
+        assertThat(orderStatusCounter.snapshot()).isEqualTo(countedInDatabase());
+    }
+
+    @Test
+    void shortageFailsOnlyTheChunkThatCannotBeReopened() {
+        Long productId = saveProduct(0);
+        List<Long> ids = saveOrderItems(productId, 1);
+        bulkUpdate("CANCELLED", ids);
+        productRepo.updateStock(productId, 4);
+
+        // the first chunk of three reopens, the second needs three more units than are left
+        assertThatThrownBy(() -> bulkUpdate("PENDING", ids)).isInstanceOf(OutOfStockException.class);
+        assertThat(orderItemRepo.findAll().stream().filter(item -> item.getStatus() == OrderStatus.PENDING)).hasSize(3);
+        assertThat(stock(productId)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSingleUpdatesOfOneItemRestockItOnce() throws Exception {
+        Long productId = saveProduct(0);
+        Long id = saveOrderItems(productId, 2).get(0);
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return orderItemService.updateOrderItemStatus(id, "CANCELLED");
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // the row lock serialises the requests: one cancels, the rest find it already cancelled
+        assertThat(stock(productId)).isEqualTo(2);
+        assertThat(orderEventRepo.findAll()).filteredOn(event -> event.getType() == OrderEventType.STATUS_CHANGED).hasSize(1);
+        assertThat(orderStatusCounter.snapshot()).isEqualTo(countedInDatabase());
+    }
+
+    private Response bulkUpdate(String status, List<Long> ids) {
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setStatus(status);
+        request.setOrderItemIds(ids);
+        return orderItemService.bulkUpdateOrderItemStatus(request);
+    }
+
+    private List<Long> saveOrderItems(Long productId, int quantity) {
+        Product product = productRepo.findById(productId).orElseThrow();
+        Order order = new Order();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(quantity);
+            item.setPrice(BigDecimal.TEN);
+            item.setStatus(OrderStatus.PENDING);
+            item.setOrder(order);
+            items.add(item);
+        }
+        order.setOrderItemList(items);
+        order.setTotalPrice(BigDecimal.TEN);
+        List<Long> ids = orderRepo.save(order).getOrderItemList().stream().map(OrderItem::getId).toList();
+        // saved directly rather than placed, so recount
+        orderStatusCounter.reconcile();
+        return ids;
+    }
+
+    private Map<OrderStatus, Long> countedInDatabase() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, orderItemRepo.findAll().stream().filter(item -> item.getStatus() == status).count());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,99 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.enums.UserRole;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// H2 rejects the MySQL streaming fetch size, so use an ordinary one
+@DataJpaTest(properties = "order.export.fetch-size=7")
+@Import({OrderItemExporter.class, JacksonAutoConfiguration.class})
+class OrderItemExporterTest {
+
+    private static final int ITEM_COUNT = 30;
+
+    @Autowired
+    private OrderItemExporter orderItemExporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .name("Doe, \"JD\" Jane")
+                .email("jane@example.com")
+                .password("secret")
+                .phoneNumber("5550000")
+                .role(UserRole.USER)
+                .build());
+        Product product = new Product();
+        product.setName("Mug");
+        product.setPrice(new BigDecimal("12.50"));
+        entityManager.persist(product);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            OrderItem item = new OrderItem();
+            item.setUser(user);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setPrice(new BigDecimal("12.50"));
+            item.setStatus(i % 3 == 0 ? OrderStatus.SHIPPED : OrderStatus.PENDING);
+            entityManager.persist(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void writesCsvWithHeaderAndQuotedFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = orderItemExporter.export(OrderStatus.SHIPPED, null, null, null, OrderItemExporter.Format.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(ITEM_COUNT / 3);
+        assertThat(lines).hasSize(ITEM_COUNT / 3 + 1);
+        assertThat(lines.get(0)).startsWith("id,order_id,created_at,status");
+        assertThat(lines.subList(1, lines.size()))
+                .allMatch(line -> line.contains(",SHIPPED,1,12.50,"))
+                .allMatch(line -> line.endsWith(",\"Doe, \"\"JD\"\" Jane\",jane@example.com"));
+    }
+
+    @Test
+    void writesOneJsonDocumentPerLineInIdOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = orderItemExporter.export(null, null, null, null, OrderItemExporter.Format.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(ITEM_COUNT);
+        assertThat(lines).hasSize(ITEM_COUNT);
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.get("id").asLong()).isGreaterThan(previousId);
+            assertThat(row.get("productName").asText()).isEqualTo("Mug");
+            previousId = row.get("id").asLong();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.OrderItemRequest;
+import Ecommerce.Ecommerce.dto.OrderPipelineStatsDto;
+import Ecommerce.Ecommerce.dto.OrderRequest;
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.UserRole;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import Ecommerce.Ecommerce.exception.OutOfStockException;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Many checkouts race through the group-commit pipeline; each batch commits once and orders
+ * rejected inside a batch must not take the rest of the batch down with them.
+ */
+@Slf4j
+@TestPropertySource(properties = {"order.pipeline.enabled=true", "order.pipeline.batch-size=16", "order.pipeline.max-wait-ms=20"})
+@Import({OrderPlacementPipeline.class, OrderWriter.class})
+class OrderPlacementPipelineTest extends StockTestSupport {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderPlacementPipeline pipeline;
+
+    @Autowired
+    private OrderItemRepo orderItemRepo;
+
+    @Test
+    void concurrentOrdersShareCommitsWithoutOverselling() throws Exception {
+        int initialStock = 200;
+        User user = saveUser();
+        Long productId = saveProduct(initialStock);
+
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    while (true) {
+                        try {
+                            pipeline.place(user, order(productId), Map.of(productId, 1));
+                            placed.incrementAndGet();
+                        } catch (OutOfStockException e) {
+                            rejected.incrementAndGet();
+                            return null;
+                        }
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        OrderPipelineStatsDto stats = pipeline.stats();
+        assertThat(placed).hasValue(initialStock);
+        assertThat(rejected).hasValue(THREADS);
+        assertThat(orderItemRepo.count()).isEqualTo(initialStock);
+        assertThat(orderEventRepo.count()).isEqualTo(initialStock);
+        assertThat(stock(productId)).isZero();
+        assertThat(stats.getFallbackBatches()).isZero();
+        assertThat(stats.getBatches()).isLessThan(stats.getOrders());
+        log.info("Pipeline: {} orders in {} batches (avg {} orders, {} ms per batch)",
+                stats.getOrders(), stats.getBatches(), String.format("%.1f", stats.getAverageBatchSize()),
+                String.format("%.2f", stats.getAverageBatchMillis()));
+    }
+
+    @Test
+    void rejectedOrderIsReportedToItsOwnCaller() {
+        User user = saveUser();
+        Long productId = saveProduct(1);
+
+        pipeline.place(user, order(productId), Map.of(productId, 1));
+        assertThatThrownBy(() -> pipeline.place(user, order(productId), Map.of(productId, 1)))
+                .isInstanceOf(OutOfStockException.class);
+        assertThatThrownBy(() -> pipeline.place(user, order(-1L), Map.of(-1L, 1)))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(orderItemRepo.count()).isEqualTo(1);
+        // rejected orders roll back their outbox events with them
+        assertThat(orderEventRepo.count()).isEqualTo(1);
+    }
+
+    private static OrderRequest order(Long productId) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private User saveUser() {
+        User user = new User();
+        user.setName("Buyer");
+        user.setEmail("buyer@example.com");
+        user.setPassword("secret");
+        user.setPhoneNumber("5550100");
+        user.setRole(UserRole.USER);
+        return userRepo.save(user);
+    }
+}
@@ -0,0 +1,110 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.config.JpaBatchingConfig;
+import Ecommerce.Ecommerce.dto.OrderItemRequest;
+import Ecommerce.Ecommerce.dto.OrderRequest;
+import Ecommerce.Ecommerce.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times {@link OrderWriter#write} for growing carts and counts its statements: products are
+ * looked up in one SELECT and rows are inserted in batches, so the only statements that grow
+ * with the cart are the per-product conditional stock UPDATEs.
+ */
+@Slf4j
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderWriter.class, JpaBatchingConfig.class})
+class OrderWriterBenchmarkTest extends StockTestSupport {
+
+    private static final int[] CART_SIZES = {1, 10, 50};
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 100;
+
+    @Autowired
+    private OrderWriter orderWriter;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 50; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(BigDecimal.valueOf(10 + i));
+            product.setStock(1_000_000);
+            productIds.add(productRepo.save(product).getId());
+        }
+    }
+
+    @Test
+    void placingAnOrderLooksUpItsProductsOnceAndBatchesItsInserts() {
+        Statistics statistics = sessionFactory.getStatistics();
+        for (int cartSize : CART_SIZES) {
+            OrderRequest order = order(productIds.subList(0, cartSize));
+            Map<Long, Integer> quantities = order.getItems().stream()
+                    .collect(Collectors.toMap(OrderItemRequest::getProductId, OrderItemRequest::getQuantity));
+
+            statistics.clear();
+            write(order, quantities);
+            long statements = statistics.getPrepareStatementCount();
+            long productLoads = statistics.getEntityLoadCount();
+            long inserts = statistics.getEntityInsertCount();
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                write(order, quantities);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                write(order, quantities);
+            }
+            double averageMicros = (System.nanoTime() - start) / 1000.0 / MEASURED_ROUNDS;
+            log.info("cart={}: {} statements, {} entity inserts, {} us per order",
+                    cartSize, statements, inserts, String.format("%.1f", averageMicros));
+
+            // the order, its items and one placed event per item
+            assertThat(inserts).isEqualTo(1 + 2L * cartSize);
+            assertThat(productLoads).isEqualTo(cartSize);
+            // besides one stock UPDATE per product: one product SELECT, one batched INSERT per table
+            // and the pooled id fetches (one per table, plus one when a cart crosses an allocation)
+            assertThat(statements - cartSize).isLessThanOrEqualTo(1 + 3 + 5);
+        }
+    }
+
+    private void write(OrderRequest order, Map<Long, Integer> quantities) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> orderWriter.write(null, order, quantities));
+    }
+
+    private static OrderRequest order(List<Long> productIds) {
+        OrderRequest order = new OrderRequest();
+        order.setItems(productIds.stream().map(productId -> {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(productId);
+            item.setQuantity(1);
+            return item;
+        }).toList());
+        return order;
+    }
+}
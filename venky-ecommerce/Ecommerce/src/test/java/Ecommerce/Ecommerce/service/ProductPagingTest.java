@@ -0,0 +1,90 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.ProductDto;
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.search.ProductSearchIndex;
+import Ecommerce.Ecommerce.service.image.ImageRenditionService;
+import Ecommerce.Ecommerce.service.impl.ProductServiceImpl;
+import Ecommerce.Ecommerce.service.interf.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Keyset paging of the product list, newest first: each page's cursor picks up right after its
+ * last product, and the last page carries no cursor.
+ */
+@Import({ProductServiceImpl.class, ProductSearchIndex.class, EntityDtoMapper.class})
+class ProductPagingTest extends StockTestSupport {
+
+    @MockitoBean
+    private AwsS3Service awsS3Service;
+
+    @MockitoBean
+    private ImageRenditionService imageRenditionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void pagesWalkTheCatalogueNewestFirstWithoutOverlap() {
+        List<Long> newestFirst = saveProducts(5).reversed();
+
+        Response first = productService.getProductsPage(null, 2);
+        assertThat(ids(first)).containsExactlyElementsOf(newestFirst.subList(0, 2));
+        assertThat(first.getNextCursor()).isNotNull();
+
+        Response middle = productService.getProductsPage(first.getNextCursor(), 2);
+        assertThat(ids(middle)).containsExactlyElementsOf(newestFirst.subList(2, 4));
+        assertThat(middle.getNextCursor()).isNotNull();
+
+        Response last = productService.getProductsPage(middle.getNextCursor(), 2);
+        assertThat(ids(last)).containsExactlyElementsOf(newestFirst.subList(4, 5));
+        assertThat(last.getNextCursor()).isNull();
+
+        // a page that exactly fills up the rest is the last one too
+        assertThat(productService.getProductsPage(first.getNextCursor(), 3).getNextCursor()).isNull();
+    }
+
+    @Test
+    void limitIsClampedToOneHundred() {
+        saveProducts(105);
+
+        Response capped = productService.getProductsPage(null, 1000);
+        assertThat(capped.getProductList()).hasSize(100);
+        assertThat(capped.getNextCursor()).isNotNull();
+        assertThat(productService.getProductsPage(capped.getNextCursor(), 1000).getProductList()).hasSize(5);
+
+        assertThat(productService.getProductsPage(null, 0).getProductList()).hasSize(1);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        saveProducts(1);
+
+        assertThatThrownBy(() -> productService.getProductsPage("not-a-cursor!", 10))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private List<Long> saveProducts(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(saveProduct(1));
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(Response response) {
+        return response.getProductList().stream().map(ProductDto::getId).toList();
+    }
+}
@@ -0,0 +1,234 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.SalesRollupDto;
+import Ecommerce.Ecommerce.entity.Category;
+import Ecommerce.Ecommerce.entity.Order;
+import Ecommerce.Ecommerce.entity.OrderEvent;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.entity.SalesRollupState;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.event.OrderEventOutbox;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.repository.CategoryRepo;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import Ecommerce.Ecommerce.repository.OrderItemRepo;
+import Ecommerce.Ecommerce.repository.OrderRepo;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import Ecommerce.Ecommerce.repository.SalesRollupBackfillChunkRepo;
+import Ecommerce.Ecommerce.repository.SalesRollupRepo;
+import Ecommerce.Ecommerce.repository.SalesRollupStateRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {"analytics.rollup.batch-size=4",
+        "analytics.backfill.chunk-size=3", "analytics.backfill.threads=3"})
+@Import({SalesRollupService.class, SalesRollupBackfill.class, OrderEventOutbox.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesRollupServiceTest {
+
+    private static final BigDecimal ITEM_PRICE = new BigDecimal("20.00");
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesRollupBackfill salesRollupBackfill;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private SalesRollupRepo salesRollupRepo;
+
+    @Autowired
+    private SalesRollupStateRepo salesRollupStateRepo;
+
+    @Autowired
+    private SalesRollupBackfillChunkRepo backfillChunkRepo;
+
+    @Autowired
+    private OrderEventRepo orderEventRepo;
+
+    @Autowired
+    private OrderItemRepo orderItemRepo;
+
+    @Autowired
+    private OrderRepo orderRepo;
+
+    @Autowired
+    private ProductRepo productRepo;
+
+    @Autowired
+    private CategoryRepo categoryRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long categoryId;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Kitchen");
+        categoryId = categoryRepo.save(category).getId();
+        product = new Product();
+        product.setName("Mug");
+        product.setPrice(ITEM_PRICE);
+        product.setCategory(categoryRepo.findById(categoryId).orElseThrow());
+        product = productRepo.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderEventRepo.deleteAll();
+        orderRepo.deleteAll();
+        productRepo.deleteAll();
+        categoryRepo.deleteAll();
+        salesRollupRepo.deleteAll();
+        backfillChunkRepo.deleteAll();
+        SalesRollupState state = salesRollupService.getState();
+        state.setEpoch(LocalDateTime.now());
+        state.setBackfilledAt(null);
+        salesRollupStateRepo.save(state);
+    }
+
+    @Test
+    void placedAndCancelledItemsMoveTheirBuckets() {
+        List<OrderItem> items = placeOrder(10);
+        changeStatus(items.subList(0, 3), OrderStatus.CANCELLED);
+        // reopening a cancelled item counts it again
+        changeStatus(items.subList(0, 1), OrderStatus.PENDING);
+
+        salesRollupService.rollUp();
+
+        assertThat(dailyTotal()).isEqualTo(new SalesRollupDto(null, null, null, 8L, 16L, new BigDecimal("160.00")));
+        assertThat(orderEventRepo.findAll()).allMatch(event -> event.getRolledUpAt() != null);
+        // rolling up again adds nothing
+        salesRollupService.rollUp();
+        assertThat(dailyTotal().orderItems()).isEqualTo(8L);
+
+        List<SalesRollupDto> byCategory = salesRollupService.getSales("hour", null, null, "category", null).getSalesRollupList();
+        assertThat(byCategory).singleElement()
+                .satisfies(point -> assertThat(point.categoryId()).isEqualTo(categoryId))
+                .satisfies(point -> assertThat(point.units()).isEqualTo(16L));
+    }
+
+    @Test
+    void backfillCountsOlderOrdersOnceAndHandsOverToEvents() throws Exception {
+        List<OrderItem> items = placeOrder(10);
+        changeStatus(items.subList(0, 2), OrderStatus.CANCELLED);
+        moveEpochPast(items);
+
+        // events of items ordered before the epoch wait for the backfill
+        salesRollupService.rollUp();
+        assertThat(salesRollupRepo.findAll()).isEmpty();
+
+        salesRollupBackfill.start();
+        awaitBackfill();
+        assertThat(salesRollupService.getState().getBackfilledAt()).isNotNull();
+        assertThat(backfillChunkRepo.count()).isPositive();
+
+        // the backfill read current statuses, so the pending events must not be added on top
+        salesRollupService.rollUp();
+        assertThat(dailyTotal()).isEqualTo(new SalesRollupDto(null, null, null, 8L, 16L, new BigDecimal("160.00")));
+
+        // later changes to backfilled items are picked up from their events
+        changeStatus(items.subList(2, 3), OrderStatus.CANCELLED);
+        salesRollupService.rollUp();
+        assertThat(dailyTotal().orderItems()).isEqualTo(7L);
+
+        assertThatThrownBy(() -> salesRollupBackfill.start()).isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    @Test
+    void retentionKeepsEventsWaitingForTheRollupButNotForTheBackfill() {
+        List<OrderItem> older = placeOrder(3);
+        SalesRollupState state = salesRollupService.getState();
+        state.setEpoch(LocalDateTime.now());
+        salesRollupStateRepo.save(state);
+        List<OrderItem> newer = placeOrder(2);
+        assertThat(newer.get(0).getCreatedAt()).isAfter(state.getEpoch()).isAfter(older.get(2).getCreatedAt());
+        List<Long> ids = orderEventRepo.findAll().stream().map(OrderEvent::getId).toList();
+        orderEventRepo.markPublished(ids, LocalDateTime.now().minusDays(30));
+
+        orderEventRepo.deletePublishedBefore(LocalDateTime.now().minusDays(7));
+
+        // the backfill counts older items from their current state; newer ones still need their events
+        assertThat(orderEventRepo.findAll()).extracting(OrderEvent::getOrderItemId)
+                .containsExactlyInAnyOrderElementsOf(newer.stream().map(OrderItem::getId).toList());
+        salesRollupService.rollUp();
+        assertThat(dailyTotal().orderItems()).isEqualTo(2L);
+    }
+
+    // the test's items may straddle midnight, so add up the day buckets
+    private SalesRollupDto dailyTotal() {
+        return salesRollupService.getSales("day", null, null, "total", null).getSalesRollupList().stream()
+                .reduce(new SalesRollupDto(null, null, null, 0L, 0L, BigDecimal.ZERO), (a, b) -> new SalesRollupDto(null, null, null,
+                        a.orderItems() + b.orderItems(), a.units() + b.units(), a.revenue().add(b.revenue())));
+    }
+
+    private List<OrderItem> placeOrder(int itemCount) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Order order = new Order();
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = 0; i < itemCount; i++) {
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setQuantity(2);
+                item.setPrice(ITEM_PRICE);
+                item.setStatus(OrderStatus.PENDING);
+                item.setOrder(order);
+                items.add(item);
+            }
+            order.setOrderItemList(items);
+            order.setTotalPrice(ITEM_PRICE.multiply(BigDecimal.valueOf(itemCount)));
+            Order saved = orderRepo.save(order);
+            orderEventOutbox.itemsPlaced(saved);
+            return saved.getOrderItemList();
+        });
+    }
+
+    private void changeStatus(List<OrderItem> items, OrderStatus status) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            for (OrderItem detached : items) {
+                OrderItem item = orderItemRepo.findById(detached.getId()).orElseThrow();
+                OrderStatus previous = item.getStatus();
+                item.setStatus(status);
+                orderEventOutbox.statusChanged(item, previous);
+            }
+        });
+    }
+
+    private void moveEpochPast(List<OrderItem> items) {
+        SalesRollupState state = salesRollupService.getState();
+        state.setEpoch(items.get(items.size() - 1).getCreatedAt().plusSeconds(1));
+        salesRollupStateRepo.save(state);
+    }
+
+    private void awaitBackfill() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (salesRollupBackfill.getStatus().getSalesBackfillStatus().isRunning()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        assertThat(salesRollupBackfill.getStatus().getSalesBackfillStatus().getFailedChunks()).isZero();
+    }
+}
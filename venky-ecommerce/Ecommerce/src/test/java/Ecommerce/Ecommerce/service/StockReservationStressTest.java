@@ -0,0 +1,263 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.exception.NotFoundException;
+import Ecommerce.Ecommerce.exception.OutOfStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads race to buy a single hot product. Each reservation commits on its own,
+ * so this exercises real row-lock contention rather than one test transaction.
+ */
+@Slf4j
+class StockReservationStressTest extends StockTestSupport {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Test
+    void hotProductNeverOversells() throws Exception {
+        int initialStock = 500;
+        Long productId = saveProduct(initialStock);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long elapsedNanos = race(() -> {
+            while (true) {
+                try {
+                    stockService.reserve(Map.of(productId, 1));
+                    sold.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    rejected.incrementAndGet();
+                    return;
+                }
+            }
+        });
+
+        assertThat(sold).hasValue(initialStock);
+        assertThat(rejected).hasValue(THREADS);
+        assertThat(stock(productId)).isZero();
+        log.info("Hot product: {} reservations by {} threads in {} ms", sold.get(), THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    @Test
+    void flashSaleNeverOversellsAndWritesSoldUnitsBack() throws Exception {
+        int initialStock = 500;
+        Long productId = saveProduct(initialStock);
+        flashSaleService.startSale(productId);
+
+        AtomicInteger sold = new AtomicInteger();
+        long elapsedNanos = race(() -> {
+            while (true) {
+                try {
+                    stockService.reserveFlashSaleUnits(Map.of(productId, 1));
+                    sold.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    return;
+                }
+            }
+        });
+
+        assertThat(sold).hasValue(initialStock);
+        // sold units reach the row through write-behind, not per order
+        assertThat(stock(productId)).isEqualTo(initialStock);
+        flashSaleService.endSale(productId);
+        assertThat(stock(productId)).isZero();
+        log.info("Flash sale: {} reservations by {} threads in {} ms", sold.get(), THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    @Test
+    void returnedFlashSaleUnitsGoBackToTheRowOnceTheSaleEnds() {
+        Long productId = saveProduct(5);
+        flashSaleService.startSale(productId);
+        Map<Long, Integer> taken = stockService.reserveFlashSaleUnits(Map.of(productId, 3));
+        flashSaleService.endSale(productId);
+
+        stockService.returnFlashSaleUnits(taken);
+
+        assertThat(stock(productId)).isEqualTo(5);
+    }
+
+    @Test
+    void endingASaleDuringTheRushKeepsEveryUnitSold() throws Exception {
+        int initialStock = 2000;
+        Long productId = saveProduct(initialStock);
+        flashSaleService.startSale(productId);
+
+        AtomicInteger sold = new AtomicInteger();
+        race(() -> {
+            while (true) {
+                // one buyer ends the sale part way; the rest move over to the row mid-flight
+                if (sold.get() >= initialStock / 2 && flashSaleService.isActive(productId)) {
+                    try {
+                        flashSaleService.endSale(productId);
+                    } catch (NotFoundException alreadyEnded) {
+                        // another buyer got there first
+                    }
+                }
+                try {
+                    stockService.reserve(Map.of(productId, 1));
+                    sold.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    return;
+                }
+            }
+        });
+
+        assertThat(flashSaleService.isActive(productId)).isFalse();
+        assertThat(sold).hasValue(initialStock);
+        assertThat(stock(productId)).isZero();
+    }
+
+    @Test
+    void concurrentStartsOpenOneSale() throws Exception {
+        int initialStock = 50;
+        Long productId = saveProduct(initialStock);
+
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        race(() -> {
+            try {
+                flashSaleService.startSale(productId);
+                started.incrementAndGet();
+            } catch (InvalidCredentialsException e) {
+                refused.incrementAndGet();
+            }
+        });
+
+        assertThat(started).hasValue(1);
+        assertThat(refused).hasValue(THREADS - 1);
+        stockService.reserve(Map.of(productId, 10));
+        flashSaleService.endSale(productId);
+        assertThat(stock(productId)).isEqualTo(initialStock - 10);
+    }
+
+    @Test
+    void stockEditsRacingASaleStartAreSeenByTheCounterOrRefused() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 25; round++) {
+                Long productId = saveProduct(100);
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Response> sale = pool.submit(() -> {
+                    start.await();
+                    return flashSaleService.startSale(productId);
+                });
+                Future<Boolean> edit = pool.submit(() -> {
+                    start.await();
+                    try {
+                        stockService.setStock(productId, 500);
+                        return true;
+                    } catch (InvalidCredentialsException e) {
+                        return false;
+                    }
+                });
+                start.countDown();
+                int saleBase = sale.get(10, TimeUnit.SECONDS).getFlashSaleList().get(0).getInitialStock();
+                boolean edited = edit.get(10, TimeUnit.SECONDS);
+
+                // an accepted edit committed before the sale read the row; a later one must be refused
+                int expectedBase = edited ? 500 : 100;
+                assertThat(saleBase).isEqualTo(expectedBase);
+                stockService.reserve(Map.of(productId, 10));
+                flashSaleService.endSale(productId);
+                assertThat(stock(productId)).isEqualTo(expectedBase - 10);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void multiProductOrdersInOppositeOrderDoNotDeadlockOrOversell() throws Exception {
+        int initialStock = 200;
+        Long first = saveProduct(initialStock);
+        Long second = saveProduct(initialStock);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger threadIndex = new AtomicInteger();
+        race(() -> {
+            // half the threads list the products one way round, half the other
+            boolean reversed = threadIndex.getAndIncrement() % 2 == 0;
+            Map<Long, Integer> cart = new LinkedHashMap<>();
+            cart.put(reversed ? second : first, 1);
+            cart.put(reversed ? first : second, 1);
+            while (true) {
+                try {
+                    stockService.reserve(cart);
+                    sold.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    return;
+                }
+            }
+        });
+
+        assertThat(sold).hasValue(initialStock);
+        assertThat(stock(first)).isZero();
+        assertThat(stock(second)).isZero();
+    }
+
+    @Test
+    void shortageRollsBackEarlierDecrementsOfTheSameOrder() {
+        Long plenty = saveProduct(10);
+        Long scarce = saveProduct(1);
+
+        Map<Long, Integer> cart = new LinkedHashMap<>();
+        cart.put(plenty, 5);
+        cart.put(scarce, 2);
+        try {
+            stockService.reserve(cart);
+        } catch (OutOfStockException expected) {
+            // scarce product is short
+        }
+
+        assertThat(stock(plenty)).isEqualTo(10);
+        assertThat(stock(scarce)).isEqualTo(1);
+    }
+
+    private long race(Runnable buyer) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    buyer.run();
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
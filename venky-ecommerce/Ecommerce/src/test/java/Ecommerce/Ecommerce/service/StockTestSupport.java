@@ -0,0 +1,66 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.cache.ProductCache;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.event.OrderEventOutbox;
+import Ecommerce.Ecommerce.repository.OrderEventRepo;
+import Ecommerce.Ecommerce.repository.OrderRepo;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import Ecommerce.Ecommerce.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+/**
+ * Shared setup for tests that reserve stock or write orders against the test database.
+ * Tests run outside a test transaction, so every service call commits on its own as it does
+ * in production, and the rows they leave behind are deleted after each test. Subclasses add
+ * the service under test with {@code @Import} and their settings with {@code @TestPropertySource}.
+ */
+@DataJpaTest
+@Import({StockService.class, ProductCache.class, FlashSaleService.class, OrderStatusCounter.class, OrderEventOutbox.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class StockTestSupport {
+
+    @Autowired
+    protected ProductRepo productRepo;
+
+    @Autowired
+    protected OrderRepo orderRepo;
+
+    @Autowired
+    protected OrderEventRepo orderEventRepo;
+
+    @Autowired
+    protected UserRepo userRepo;
+
+    @Autowired
+    protected OrderStatusCounter orderStatusCounter;
+
+    @AfterEach
+    void deleteOrdersAndProducts() {
+        orderEventRepo.deleteAll();
+        orderRepo.deleteAll();
+        productRepo.deleteAll();
+        userRepo.deleteAll();
+        // the counter outlives the test in the cached context; resync it with the emptied tables
+        orderStatusCounter.reconcile();
+    }
+
+    protected Long saveProduct(int stock) {
+        Product product = new Product();
+        product.setName("Item");
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(stock);
+        return productRepo.save(product).getId();
+    }
+
+    protected int stock(Long productId) {
+        return productRepo.findById(productId).orElseThrow().getStock();
+    }
+}
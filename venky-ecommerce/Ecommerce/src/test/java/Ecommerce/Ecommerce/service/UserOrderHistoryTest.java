@@ -0,0 +1,200 @@
+package Ecommerce.Ecommerce.service;
+
+import Ecommerce.Ecommerce.dto.OrderHistorySummaryDto;
+import Ecommerce.Ecommerce.dto.OrderItemDto;
+import Ecommerce.Ecommerce.dto.Response;
+import Ecommerce.Ecommerce.entity.OrderItem;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.entity.User;
+import Ecommerce.Ecommerce.enums.OrderStatus;
+import Ecommerce.Ecommerce.enums.UserRole;
+import Ecommerce.Ecommerce.exception.InvalidCredentialsException;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.security.AuthUser;
+import Ecommerce.Ecommerce.security.CustomUserDetailsService;
+import Ecommerce.Ecommerce.security.JwtUtils;
+import Ecommerce.Ecommerce.service.impl.UserServiceImpl;
+import Ecommerce.Ecommerce.service.interf.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The signed-in user's order history: keyset pages of their items newest first, read through
+ * the JPQL constructor projection, and the summary shown on the account page.
+ */
+@DataJpaTest
+@Import({UserServiceImpl.class, EntityDtoMapper.class})
+class UserOrderHistoryTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void signIn() {
+        user = saveUser("asha");
+        otherUser = saveUser("ravi");
+        AuthUser principal = AuthUser.builder().user(user).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void pagesWalkTheUsersItemsNewestFirstWithoutOverlap() {
+        Product product = saveProduct("Desk lamp");
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            itemIds.add(saveItem(user, product, OrderStatus.PENDING, "10").getId());
+            saveItem(otherUser, product, OrderStatus.PENDING, "10");
+        }
+        List<Long> newestFirst = itemIds.reversed();
+
+        Response first = userService.getOrderHistory(null, 2);
+        assertThat(ids(first)).containsExactlyElementsOf(newestFirst.subList(0, 2));
+        assertThat(first.getNextCursor()).isNotNull();
+
+        // the cursor is exclusive: the middle page starts right after the last item already shown
+        Response middle = userService.getOrderHistory(first.getNextCursor(), 2);
+        assertThat(ids(middle)).containsExactlyElementsOf(newestFirst.subList(2, 4));
+        assertThat(middle.getNextCursor()).isNotNull();
+
+        Response last = userService.getOrderHistory(middle.getNextCursor(), 2);
+        assertThat(ids(last)).containsExactlyElementsOf(newestFirst.subList(4, 5));
+        assertThat(last.getNextCursor()).isNull();
+
+        // exactly a full page left is still the last page
+        assertThat(userService.getOrderHistory(first.getNextCursor(), 3).getNextCursor()).isNull();
+    }
+
+    @Test
+    void rowsCarryTheItemAndItsProductAndKeepItemsOfRemovedProducts() {
+        Product product = saveProduct("Desk lamp");
+        product.setImageUrl("/images/lamp.jpg");
+        product.setThumbnailUrl("/images/lamp-150.jpg");
+        OrderItem kept = saveItem(user, product, OrderStatus.SHIPPED, "25.50");
+        kept.setQuantity(3);
+        // the product has since been removed from the catalogue, leaving the item without one
+        OrderItem orphaned = saveItem(user, null, OrderStatus.DELIVERED, "8");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OrderItemDto> items = userService.getOrderHistory(null, 10).getOrderItemList();
+
+        assertThat(items).extracting(OrderItemDto::getId).containsExactly(orphaned.getId(), kept.getId());
+        OrderItemDto orphanedDto = items.get(0);
+        assertThat(orphanedDto.getStatus()).isEqualTo("DELIVERED");
+        assertThat(orphanedDto.getPrice()).isEqualByComparingTo("8");
+        assertThat(orphanedDto.getProduct()).isNull();
+
+        OrderItemDto keptDto = items.get(1);
+        assertThat(keptDto.getQuantity()).isEqualTo(3);
+        assertThat(keptDto.getPrice()).isEqualByComparingTo("25.50");
+        assertThat(keptDto.getStatus()).isEqualTo("SHIPPED");
+        assertThat(keptDto.getCreatedAt()).isCloseTo(kept.getCreatedAt(), within(1, ChronoUnit.MILLIS));
+        assertThat(keptDto.getProduct().getId()).isEqualTo(product.getId());
+        assertThat(keptDto.getProduct().getName()).isEqualTo("Desk lamp");
+        assertThat(keptDto.getProduct().getImageUrl()).isEqualTo("/images/lamp.jpg");
+        assertThat(keptDto.getProduct().getThumbnailUrl()).isEqualTo("/images/lamp-150.jpg");
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> userService.getOrderHistory("not-a-cursor", 10))
+                .isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    @Test
+    void summaryCountsEveryItemButLeavesCancelledAndReturnedOutOfTheTotal() {
+        Product product = saveProduct("Desk lamp");
+        saveItem(user, product, OrderStatus.PENDING, "10");
+        saveItem(user, product, OrderStatus.DELIVERED, "20.50");
+        saveItem(user, null, OrderStatus.SHIPPED, "4");
+        saveItem(user, product, OrderStatus.CANCELLED, "30");
+        OrderItem latest = saveItem(user, product, OrderStatus.RETURNED, "40");
+        saveItem(otherUser, product, OrderStatus.DELIVERED, "100");
+        entityManager.flush();
+
+        OrderHistorySummaryDto summary = userService.getUserInfoAndOrderHistory().getOrderHistorySummary();
+
+        assertThat(summary.getItemCount()).isEqualTo(5);
+        assertThat(summary.getTotalSpent()).isEqualByComparingTo("34.50");
+        assertThat(summary.getLastOrderAt()).isCloseTo(latest.getCreatedAt(), within(1, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void summaryOfAUserWithoutOrdersIsEmpty() {
+        OrderHistorySummaryDto summary = userService.getUserInfoAndOrderHistory().getOrderHistorySummary();
+
+        assertThat(summary.getItemCount()).isZero();
+        assertThat(summary.getTotalSpent()).isEqualByComparingTo("0");
+        assertThat(summary.getLastOrderAt()).isNull();
+    }
+
+    private static List<Long> ids(Response response) {
+        return response.getOrderItemList().stream().map(OrderItemDto::getId).toList();
+    }
+
+    private User saveUser(String name) {
+        return entityManager.persist(User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .password("secret")
+                .phoneNumber("5550100")
+                .role(UserRole.USER)
+                .build());
+    }
+
+    private Product saveProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        return entityManager.persist(product);
+    }
+
+    private OrderItem saveItem(User owner, Product product, OrderStatus status, String price) {
+        OrderItem item = new OrderItem();
+        item.setUser(owner);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setPrice(new BigDecimal(price));
+        item.setStatus(status);
+        return entityManager.persist(item);
+    }
+}
@@ -0,0 +1,209 @@
+package Ecommerce.Ecommerce.service.image;
+
+import Ecommerce.Ecommerce.cache.ProductCache;
+import Ecommerce.Ecommerce.dto.ProductDto;
+import Ecommerce.Ecommerce.entity.Product;
+import Ecommerce.Ecommerce.mapper.EntityDtoMapper;
+import Ecommerce.Ecommerce.repository.ProductRepo;
+import Ecommerce.Ecommerce.search.ProductSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Renditions are produced on background threads against a filesystem store, so products are
+ * committed up front and the assertions wait for the worker to publish its update.
+ */
+@DataJpaTest
+@Import({ProductCache.class, ProductSearchIndex.class, EntityDtoMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImageRenditionServiceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Autowired
+    private ProductRepo productRepo;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private EntityDtoMapper entityDtoMapper;
+
+    private LocalImageStore imageStore;
+    private ImageRenditionService renditionService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageStore = new LocalImageStore(tempDir.toString(), "/images/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (renditionService != null) {
+            renditionService.shutdown();
+        }
+        productRepo.deleteAll();
+    }
+
+    @Test
+    void renditionsAreStoredAndPublishedToCacheAndSearch() throws Exception {
+        renditionService = service(imageStore, 2, 10);
+        String imageUrl = storeImage("original.png", 2000, 1000);
+        Long productId = saveProduct("Panorama print", imageUrl);
+        assertThat(cachedProduct(productId).getThumbnailUrl()).isNull();
+
+        assertThat(renditionService.submit(productId, imageUrl)).isTrue();
+        awaitRenditions(productId);
+
+        Product product = productRepo.findById(productId).orElseThrow();
+        assertThat(widthOf(product.getThumbnailUrl())).isEqualTo(150);
+        assertThat(widthOf(product.getCardUrl())).isEqualTo(400);
+        assertThat(widthOf(product.getDetailUrl())).isEqualTo(1024);
+        assertThat(cachedProduct(productId).getThumbnailUrl()).isEqualTo(product.getThumbnailUrl());
+        assertThat(productSearchIndex.search("panorama")).singleElement()
+                .extracting(ProductDto::getCardUrl).isEqualTo(product.getCardUrl());
+    }
+
+    @Test
+    void unreadableImagesFallBackToTheOriginal() throws Exception {
+        renditionService = service(imageStore, 1, 10);
+        String notAnImage = imageStore.store("notes.png", content("plain text"), 10, "image/png");
+        Long brokenId = saveProduct("Broken", notAnImage);
+        Long missingId = saveProduct("Missing", "/images/never-stored.png");
+
+        renditionService.submit(brokenId, notAnImage);
+        renditionService.submit(missingId, "/images/never-stored.png");
+        awaitRenditions(brokenId);
+        awaitRenditions(missingId);
+
+        // served with the original, and no longer picked up by the sweep
+        Product broken = productRepo.findById(brokenId).orElseThrow();
+        assertThat(broken.getThumbnailUrl()).isEqualTo(notAnImage);
+        assertThat(broken.getCardUrl()).isEqualTo(notAnImage);
+        assertThat(broken.getDetailUrl()).isEqualTo(notAnImage);
+        assertThat(productRepo.findById(missingId).orElseThrow().getThumbnailUrl()).isEqualTo("/images/never-stored.png");
+    }
+
+    @Test
+    void saturatedPoolRejectsWithoutBlockingAndTheSweepCatchesUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        renditionService = service(new BlockingImageStore(imageStore, release), 1, 1);
+        String imageUrl = storeImage("original.png", 300, 300);
+        Long running = saveProduct("Running", imageUrl);
+        Long queued = saveProduct("Queued", imageUrl);
+        Long rejected = saveProduct("Rejected", imageUrl);
+
+        assertThat(renditionService.submit(running, imageUrl)).isTrue();
+        assertThat(renditionService.submit(queued, imageUrl)).isTrue();
+        long start = System.nanoTime();
+        assertThat(renditionService.submit(rejected, imageUrl)).isFalse();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        // already queued or running: not submitted twice
+        assertThat(renditionService.submit(queued, imageUrl)).isFalse();
+
+        release.countDown();
+        awaitRenditions(running);
+        awaitRenditions(queued);
+        assertThat(productRepo.findById(rejected).orElseThrow().getThumbnailUrl()).isNull();
+
+        renditionService.sweep();
+        awaitRenditions(rejected);
+    }
+
+    private ImageRenditionService service(ImageStore store, int workers, int queueCapacity) {
+        return new ImageRenditionService(store, productRepo, productCache, productSearchIndex, entityDtoMapper,
+                workers, queueCapacity);
+    }
+
+    private ProductDto cachedProduct(Long productId) {
+        return productCache.get(productId, id -> entityDtoMapper.mapProductToDtoBasic(productRepo.findById(id).orElseThrow()));
+    }
+
+    private String storeImage(String key, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        byte[] bytes = out.toByteArray();
+        return imageStore.store(key, new ByteArrayInputStream(bytes), bytes.length, "image/png");
+    }
+
+    private int widthOf(String url) throws IOException {
+        try (InputStream in = imageStore.open(url)) {
+            return ImageIO.read(in).getWidth();
+        }
+    }
+
+    private Long saveProduct(String name, String imageUrl) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.TEN);
+        product.setImageUrl(imageUrl);
+        return productRepo.save(product).getId();
+    }
+
+    private void awaitRenditions(Long productId) throws InterruptedException {
+        await(() -> productRepo.findById(productId).orElseThrow().getThumbnailUrl() != null);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for renditions").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Holds every worker inside {@link #open} until released, so the pool stays saturated. */
+    private record BlockingImageStore(ImageStore delegate, CountDownLatch release) implements ImageStore {
+
+        @Override
+        public String store(String key, InputStream content, long contentLength, String contentType) {
+            return delegate.store(key, content, contentLength, contentType);
+        }
+
+        @Override
+        public String find(String key) {
+            return delegate.find(key);
+        }
+
+        @Override
+        public InputStream open(String url) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+            return delegate.open(url);
+        }
+    }
+}
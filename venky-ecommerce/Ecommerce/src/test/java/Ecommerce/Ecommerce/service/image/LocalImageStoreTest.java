@@ -0,0 +1,73 @@
+package Ecommerce.Ecommerce.service.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalImageStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path root;
+    private LocalImageStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = tempDir.resolve("images");
+        store = new LocalImageStore(root.toString(), "/images");
+    }
+
+    @Test
+    void storedImagesCanBeFoundAndReadBack() throws IOException {
+        String url = store.store("products/1/original.jpg", content("jpeg bytes"), 10, "image/jpeg");
+
+        assertThat(url).isEqualTo("/images/products/1/original.jpg");
+        assertThat(store.find("products/1/original.jpg")).isEqualTo(url);
+        assertThat(store.find("products/1/missing.jpg")).isNull();
+        try (InputStream in = store.open(url)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("jpeg bytes");
+        }
+        // the temp file used for the atomic write is gone
+        try (Stream<Path> files = Files.list(root.resolve("products/1"))) {
+            assertThat(files).containsExactly(root.resolve("products/1/original.jpg"));
+        }
+    }
+
+    @Test
+    void keysCannotEscapeTheRootDirectory() throws IOException {
+        Path outside = Files.writeString(tempDir.resolve("secret.txt"), "not an image");
+
+        assertThatThrownBy(() -> store.store("../escaped.jpg", content("x"), 1, "image/jpeg"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.store("products/../../escaped.jpg", content("x"), 1, "image/jpeg"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(tempDir.resolve("escaped.jpg")).doesNotExist();
+
+        assertThat(store.find("../secret.txt")).isNull();
+        assertThatThrownBy(() -> store.open("/images/../secret.txt")).isInstanceOf(IOException.class);
+        assertThat(outside).hasContent("not an image");
+    }
+
+    @Test
+    void urlsFromOtherStoresAreRejected() {
+        assertThatThrownBy(() -> store.open("https://bucket.s3.us-east-1.amazonaws.com/original.jpg"))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> store.open(null)).isInstanceOf(IOException.class);
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
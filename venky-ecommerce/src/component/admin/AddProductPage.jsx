@@ -31,6 +31,9 @@ const AddProductPage = () => {
   // State to store product price
   const [price, setPrice] = useState('');
 
+  // State to store units in stock (empty = not tracked)
+  const [stock, setStock] = useState('');
+
   // State to store success/error message
   const [message, setMessage] = useState('');
 
@@ -62,6 +65,9 @@ const AddProductPage = () => {
       formData.append('name', name);
       formData.append('description', description);
       formData.append('price', price);
+      if (stock !== '') {
+        formData.append('stock', stock);
+      }
 
       // Call API to add product
       const response = await ApiService.addProduct(formData);
@@ -173,6 +179,16 @@ const AddProductPage = () => {
           style={{ width: "100%", padding: "10px", marginBottom: "15px", borderRadius: "5px" }}
         />
 
+        {/* Input: Units in stock (leave empty for unlimited) */}
+        <input
+          type="number"
+          min="0"
+          placeholder="Stock (optional)"
+          value={stock}
+          onChange={(e) => setStock(e.target.value)}
+          style={{ width: "100%", padding: "10px", marginBottom: "15px", borderRadius: "5px" }}
+        />
+
         {/* Submit button */}
         <button type="submit" style={buttonStyle}>Add Product</button>
       </form>
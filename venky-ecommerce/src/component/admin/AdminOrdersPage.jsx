@@ -35,6 +35,9 @@ const AdminOrdersPage = () => {
     const [currentPage, setCurrentPage] = useState(1);
     const [totalPages, setTotalPages] = useState(0);
 
+    // State: orders placed since the list was loaded (from the live stream)
+    const [newOrderCount, setNewOrderCount] = useState(0);
+
     // State: error message
     const [error, setError] = useState(null);
 
@@ -47,6 +50,39 @@ const AdminOrdersPage = () => {
         fetchOrders();
     }, [searchStatus, currentPage]);
 
+    // Follow live order events while the page is open; reconnect after a short pause if the stream drops
+    useEffect(() => {
+        const controller = new AbortController();
+        const listen = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    await ApiService.streamOrderEvents(handleOrderEvent, controller.signal);
+                } catch (e) {
+                    if (controller.signal.aborted) return;
+                }
+                await new Promise(resolve => setTimeout(resolve, 5000));
+            }
+        };
+        listen();
+        return () => controller.abort();
+    }, []);
+
+    // ------- Function: handleOrderEvent -------
+    // Apply a status change in place; new orders are only counted until the admin refreshes
+    const handleOrderEvent = (type, event) => {
+        if (type === "STATUS_CHANGED") {
+            const applyStatus = list => list.map(order =>
+                order.id === event.orderItemId ? { ...order, status: event.status } : order);
+            setOrders(applyStatus);
+            setFilteredOrders(applyStatus);
+        } else if (type === "ITEM_PLACED") {
+            setNewOrderCount(count => count + 1);
+        } else if (type === "dropped") {
+            // the stream skipped events, so the list may be stale
+            setNewOrderCount(count => count + event);
+        }
+    };
+
     // ------- Function: fetchOrders -------
     // Fetch orders from backend (filtered by status if applicable)
     const fetchOrders = async () => {
@@ -62,6 +98,7 @@ const AdminOrdersPage = () => {
 
             setTotalPages(Math.ceil(orderList.length / itemsPerPage));
             setOrders(orderList);
+            setNewOrderCount(0);
             setFilteredOrders(orderList.slice((currentPage - 1) * itemsPerPage, currentPage * itemsPerPage));
 
         } catch (error) {
@@ -160,6 +197,13 @@ const AdminOrdersPage = () => {
 
             {error && <p style={errorStyle}>{error}</p>}
 
+            {newOrderCount > 0 && (
+                <p style={{ textAlign: "center" }}>
+                    {newOrderCount} new update(s) since this list was loaded.{" "}
+                    <button style={buttonStyle} onClick={fetchOrders}>Refresh</button>
+                </p>
+            )}
+
             {/* Filters */}
             <div style={filterContainerStyle}>
                 <div>
@@ -23,22 +23,26 @@ const AdminProductPage = () => {
   // State: error message
   const [error, setError] = useState(null);
 
+  // State: cursors[i] is the "after" cursor used to load page i + 1
+  const [cursors, setCursors] = useState([null]);
+
   const itemsPerPage = 10; // Items shown per page
 
   // ------- Fetch products from backend -------
   const fetchProducts = async () => {
     try {
-      const response = await ApiService.getAllProducts(); // API call
-      const productList = response.productList || [];
-
-      setTotalPages(Math.ceil(productList.length / itemsPerPage)); // Set total pages
-
-      setProducts(
-        productList.slice(
-          (currentPage - 1) * itemsPerPage,
-          currentPage * itemsPerPage
-        )
-      ); // Show only current page products
+      const response = await ApiService.getProductsPage(
+        cursors[currentPage - 1],
+        itemsPerPage
+      ); // API call for the current page only
+      setProducts(response.productList || []);
+
+      const knownCursors = cursors.slice(0, currentPage);
+      if (response.nextCursor) {
+        knownCursors.push(response.nextCursor); // Remember where the next page starts
+      }
+      setCursors(knownCursors);
+      setTotalPages(knownCursors.length); // Pages we can navigate to so far
     } catch (error) {
       setError(
         error.response?.data?.message || error.message || "Unable to fetch products"
@@ -17,6 +17,7 @@ const EditProductPage = () => {
     const [name, setName] = useState(''); // Product name
     const [description, setDescription] = useState(''); // Product description
     const [price, setPrice] = useState(''); // Product price
+    const [stock, setStock] = useState(''); // Units in stock (empty = not tracked)
     const [imageUrl, setImageUrl] = useState(null); // Preview image URL
     const [message, setMessage] = useState(''); // Success/error message
 
@@ -31,6 +32,7 @@ const EditProductPage = () => {
                 setName(response.product.name);
                 setDescription(response.product.description);
                 setPrice(response.product.price);
+                setStock(response.product.stock ?? '');
                 setCategoryId(response.product.categoryId);
                 setImageUrl(response.product.imageUrl); // Show existing image
             });
@@ -59,6 +61,9 @@ const EditProductPage = () => {
             formData.append('name', name);
             formData.append('description', description);
             formData.append('price', price);
+            if (stock !== '') {
+                formData.append('stock', stock);
+            }
 
             const response = await ApiService.updateProduct(formData);
 
@@ -180,6 +185,16 @@ const EditProductPage = () => {
                     style={inputStyle}
                 />
 
+                {/* Stock */}
+                <input
+                    type="number"
+                    min="0"
+                    placeholder="Stock (optional)"
+                    value={stock}
+                    onChange={(e) => setStock(e.target.value)}
+                    style={inputStyle}
+                />
+
                 {/* Submit button */}
                 <button type="submit" style={buttonStyle}>
                     Update
@@ -56,7 +56,7 @@ const ProductList = ({ products }) => {
                     style={{ borderTopLeftRadius: "15px", borderTopRightRadius: "15px" }}
                   >
                     <img
-                      src={product.imageUrl}
+                      src={product.cardUrl || product.imageUrl}
                       alt={product.name}
                       className="card-img-top"
                       style={{
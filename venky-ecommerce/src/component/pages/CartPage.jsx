@@ -1,4 +1,4 @@
-import React, { useState } from "react";
+import React, { useMemo, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import ApiService from "../../service/ApiService";
 import { useCart } from "../context/CartContext";
@@ -22,6 +22,14 @@ const CartPage = () => {
     }
   };
 
+  // One key per cart contents: retrying the same checkout reuses it, so the server places the order only once
+  const checkoutKey = useMemo(
+    () => (window.crypto?.randomUUID
+      ? window.crypto.randomUUID()
+      : `${Date.now()}-${Math.random().toString(36).slice(2)}`),
+    [cart]
+  );
+
   const totalPrice = cart.reduce(
     (total, item) => total + item.price * item.quantity,
     0
@@ -48,7 +56,7 @@ const CartPage = () => {
     };
 
     try {
-      const response = await ApiService.createOrder(orderRequest);
+      const response = await ApiService.createOrder(orderRequest, checkoutKey);
       setMessage(response.message);
       setTimeout(() => setMessage(""), 5000);
       if (response.status === 200) {
@@ -34,6 +34,9 @@ const Home = () => {
     const [error, setError] = useState(null);  
     // To store any error message if API call fails
 
+    const [cursors, setCursors] = useState([null]);  
+    // cursors[i] is the "after" cursor used to load page i + 1 (page 1 starts with no cursor)
+
     const itemsPerPage = 10;  
     // Number of products shown on one page
 
@@ -43,9 +46,6 @@ const Home = () => {
 
         const fetchProducts = async () => {
             try {
-                let allProducts = [];  
-                // Temporary array to hold all fetched products
-
                 const queryParams = new URLSearchParams(location.search);  
                 // Read the URL query parameters (like ?search=mobile)
 
@@ -55,20 +55,28 @@ const Home = () => {
                 if (searchItem) {
                     // 🔍 If there is a search term in URL, call API to search products
                     const response = await ApiService.searchProducts(searchItem);
-                    allProducts = response.productList || [];
-                } else {
-                    // 🛍️ Otherwise, fetch all available products
-                    const response = await ApiService.getAllProducts();
-                    allProducts = response.productList || [];
-                }
+                    const allProducts = response.productList || [];
 
-                // 🧮 Calculate total number of pages
-                setTotalPages(Math.ceil(allProducts.length / itemsPerPage));
+                    // 🧮 Calculate total number of pages
+                    setTotalPages(Math.ceil(allProducts.length / itemsPerPage));
 
-                // ✂️ Slice array to show products for the current page only
-                setProducts(
-                    allProducts.slice((currentPage - 1) * itemsPerPage, currentPage * itemsPerPage)
-                );
+                    // ✂️ Slice array to show products for the current page only
+                    setProducts(
+                        allProducts.slice((currentPage - 1) * itemsPerPage, currentPage * itemsPerPage)
+                    );
+                } else {
+                    // 🛍️ Otherwise, ask the backend for just this page using the saved cursor
+                    const response = await ApiService.getProductsPage(cursors[currentPage - 1], itemsPerPage);
+                    setProducts(response.productList || []);
+
+                    // 🧮 Remember the cursor of the next page so the "Next" button can load it
+                    const knownCursors = cursors.slice(0, currentPage);
+                    if (response.nextCursor) {
+                        knownCursors.push(response.nextCursor);
+                    }
+                    setCursors(knownCursors);
+                    setTotalPages(knownCursors.length);
+                }
 
             } catch (error) {
                 // ⚠️ If API fails, show proper error message
@@ -87,7 +87,7 @@ const ProductDetailsPage = () => {
 
     return (
         <div style={containerStyle}>
-            <img src={product?.imageUrl} alt={product?.name} style={imageStyle} />
+            <img src={product?.detailUrl || product?.imageUrl} alt={product?.name} style={imageStyle} />
 
             <h1>{product?.name}</h1>
             <p>{product?.description}</p>
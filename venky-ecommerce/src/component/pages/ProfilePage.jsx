@@ -5,8 +5,12 @@ import Pagination from "../common/Pagination";
 
 const ProfilePage = () => {
     const [userInfo, setUserInfo] = useState(null);
+    const [summary, setSummary] = useState(null);
     const [error, setError] = useState(null);
     const [currentPage, setCurrentPage] = useState(1);
+    const [orders, setOrders] = useState([]);
+    // cursors[i] is the "after" cursor used to load history page i + 1
+    const [cursors, setCursors] = useState([null]);
     const itemsPerPage = 5;
     const navigate = useNavigate();
 
@@ -14,15 +18,35 @@ const ProfilePage = () => {
         fetchUserInfo();
     }, []);
 
+    useEffect(() => {
+        fetchOrderHistory();
+    }, [currentPage]);
+
     const fetchUserInfo = async () => {
         try {
             const response = await ApiService.getLoggedInUserInfo();
             setUserInfo(response.user);
+            setSummary(response.orderHistorySummary);
         } catch (error) {
             setError(error.response?.data?.message || error.message || "Unable to fetch user info");
         }
     };
 
+    const fetchOrderHistory = async () => {
+        try {
+            const response = await ApiService.getOrderHistory(cursors[currentPage - 1], itemsPerPage);
+            setOrders(response.orderItemList || []);
+
+            const knownCursors = cursors.slice(0, currentPage);
+            if (response.nextCursor) {
+                knownCursors.push(response.nextCursor);
+            }
+            setCursors(knownCursors);
+        } catch (error) {
+            setError(error.response?.data?.message || error.message || "Unable to fetch order history");
+        }
+    };
+
     if (!userInfo) {
         return <div style={{ textAlign: "center", marginTop: "20px", color: "#333" }}>Loading...</div>;
     }
@@ -31,12 +55,7 @@ const ProfilePage = () => {
         navigate(userInfo.address ? "/edit-address" : "/add-address");
     };
 
-    const orderItemList = userInfo.orderItemList || [];
-    const totalPages = Math.ceil(orderItemList.length / itemsPerPage);
-    const paginatedOrders = orderItemList.slice(
-        (currentPage - 1) * itemsPerPage,
-        currentPage * itemsPerPage
-    );
+    const totalPages = cursors.length;
 
     const containerStyle = {
         maxWidth: "900px",
@@ -116,12 +135,18 @@ const ProfilePage = () => {
 
             <div style={sectionStyle}>
                 <h3>Order History</h3>
+                {summary && (
+                    <p>
+                        <strong>Items ordered:</strong> {summary.itemCount}
+                        {" · "}<strong>Total spent:</strong> ${Number(summary.totalSpent).toFixed(2)}
+                    </p>
+                )}
                 <ul style={orderListStyle}>
-                    {paginatedOrders.map(order => (
+                    {orders.map(order => (
                         <li key={order.id} style={orderItemStyle}>
-                            <img src={order.product?.imageUrl} alt={order.product.name} style={orderImageStyle} />
+                            <img src={order.product?.thumbnailUrl || order.product?.imageUrl} alt={order.product?.name} style={orderImageStyle} />
                             <div>
-                                <p><strong>Name:</strong> {order.product.name}</p>
+                                <p><strong>Name:</strong> {order.product?.name}</p>
                                 <p><strong>Status:</strong> {order.status}</p>
                                 <p><strong>Quantity:</strong> {order.quantity}</p>
                                 <p><strong>Price:</strong> ${order.price.toFixed(2)}</p>
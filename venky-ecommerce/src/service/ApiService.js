@@ -32,6 +32,14 @@ export default class ApiService {
         return response.data;
     }
 
+    static async getOrderHistory(after, limit = 5) {
+        const response = await axios.get(`${this.BASE_URL}/user/order-history`, {
+            headers: this.getHeader(),
+            params: { after, limit }
+        });
+        return response.data;
+    }
+
     /** PRODUCT APIs */
     static async addProduct(formData) {
         const response = await axios.post(`${this.BASE_URL}/product/create`, formData, {
@@ -58,6 +66,14 @@ export default class ApiService {
         return response.data;
     }
 
+    // Cursor-based page of products: pass the nextCursor from the previous page as "after"
+    static async getProductsPage(after, limit = 10) {
+        const response = await axios.get(`${this.BASE_URL}/product/list`, {
+            params: { after, limit }
+        });
+        return response.data;
+    }
+
     static async searchProducts(searchValue) {
         const response = await axios.get(`${this.BASE_URL}/product/search`, {
             params: { searchValue }
@@ -115,9 +131,11 @@ export default class ApiService {
     }
 
     /** ORDER APIs */
-    static async createOrder(body) {
+    static async createOrder(body, idempotencyKey) {
         const response = await axios.post(`${this.BASE_URL}/order/create`, body, {
-            headers: this.getHeader()
+            headers: idempotencyKey
+                ? { ...this.getHeader(), "Idempotency-Key": idempotencyKey }
+                : this.getHeader()
         });
         return response.data;
     }
@@ -153,6 +171,45 @@ export default class ApiService {
         return response.data;
     }
 
+    // Live order events for admins. EventSource cannot send the Authorization header,
+    // so the event stream is read through fetch; resolves when the server closes it.
+    static async streamOrderEvents(onEvent, signal) {
+        const response = await fetch(`${this.BASE_URL}/order/stream`, {
+            headers: { ...this.getHeader(), Accept: "text/event-stream" },
+            signal
+        });
+        if (!response.ok) {
+            throw new Error(`Order stream failed with status ${response.status}`);
+        }
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = "";
+        for (;;) {
+            const { value, done } = await reader.read();
+            if (done) {
+                return;
+            }
+            buffer += decoder.decode(value, { stream: true });
+            const frames = buffer.split(/\r?\n\r?\n/);
+            buffer = frames.pop();
+            for (const frame of frames) {
+                let type = "message";
+                const data = [];
+                for (const line of frame.split(/\r?\n/)) {
+                    if (line.startsWith("event:")) {
+                        type = line.slice(6).trim();
+                    } else if (line.startsWith("data:")) {
+                        data.push(line.slice(5).trimStart());
+                    }
+                }
+                // comment-only frames are keep-alives
+                if (data.length) {
+                    onEvent(type, JSON.parse(data.join("\n")));
+                }
+            }
+        }
+    }
+
     /** ADDRESS APIs */
     static async saveAddress(body) {
         const response = await axios.post(`${this.BASE_URL}/address/save`, body, {